@@ -4,6 +4,7 @@ plugins {
     id("maven-publish")
     id("com.modrinth.minotaur") version "2.+"
     id("me.modmuss50.mod-publish-plugin") version "0.5.+"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 repositories {
@@ -81,6 +82,10 @@ base {
     group = "fr.aeldit.cyanlib"
 }
 
+// Annotation processor generating the option registries of the ICyanLibConfig implementations. It only uses the JDK,
+// and is shipped in the mod jar so that the mods using the library can add it to their annotation processors
+val processor: SourceSet by sourceSets.creating
+
 dependencies {
     minecraft("com.mojang:minecraft:${mod.mcVersion}")
 
@@ -88,16 +93,34 @@ dependencies {
     modImplementation("net.fabricmc:fabric-loader:${C.LOADER_VERSION}")
     modImplementation("net.fabricmc.fabric-api:fabric-api:${mod.fabricVersion}")
     testImplementation("net.fabricmc:fabric-loader-junit:${C.LOADER_VERSION}")
+    testImplementation("org.openjdk.jol:jol-core:0.17")
 
     modImplementation("maven.modrinth:modmenu:${mod.modmenuVersion}")
 
     implementation("com.google.code.gson:gson:2.12.1")
+
+    annotationProcessor(processor.output)
+    testAnnotationProcessor(processor.output)
+    "jmhAnnotationProcessor"(processor.output)
 }
 
 tasks.test {
     useJUnitPlatform()
 }
 
+// The benchmarks use the classes of the mod and of Minecraft, so they need the same classpath as the main source set
+sourceSets.named("jmh") {
+    compileClasspath += sourceSets.main.get().compileClasspath
+    runtimeClasspath += sourceSets.main.get().runtimeClasspath
+}
+
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+}
+
 loom {
     runConfigs.all {
         ideConfigGenerated(true) // Run configurations are not created for subprojects by default
@@ -151,6 +174,7 @@ tasks {
 
     jar {
         from("LICENSE")
+        from(processor.output)
     }
 
     withType<JavaCompile> {
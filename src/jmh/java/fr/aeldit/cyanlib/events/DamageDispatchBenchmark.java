@@ -0,0 +1,83 @@
+package fr.aeldit.cyanlib.events;
+
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+import net.minecraft.entity.EntityType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a tick of a server with a mob farm, where thousands of zombies and a few players are damaged, and
+ * compares listeners that filter the players themselves with listeners registered with
+ * {@link MissingLivingEntityEvent#registerPlayers}
+ * <p>
+ * Entities can't be created without a world, so the damaged entities are only described by whether they are players
+ * and by their type, and {@code null} is given as the entity. The unfiltered listeners read the same flag instead of
+ * checking the class of the entity
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DamageDispatchBenchmark
+{
+    private static final int DAMAGE_EVENTS_PER_TICK = 5000;
+    private static final int LISTENERS = 4;
+
+    @Param({"0", "10"})
+    public int playersPerTick;
+
+    private boolean[] players;
+    private EntityType<?>[] types;
+    private boolean damagedIsPlayer;
+    private int calls;
+
+    @Setup
+    public void setup()
+    {
+        SharedConstants.createGameVersion();
+        Bootstrap.initialize();
+
+        players = new boolean[DAMAGE_EVENTS_PER_TICK];
+        types   = new EntityType<?>[DAMAGE_EVENTS_PER_TICK];
+        for (int i = 0; i < DAMAGE_EVENTS_PER_TICK; i++)
+        {
+            players[i] = playersPerTick != 0 && i % (DAMAGE_EVENTS_PER_TICK / playersPerTick) == 0;
+            types[i]   = players[i] ? EntityType.PLAYER : EntityType.ZOMBIE;
+        }
+
+        for (int i = 0; i < LISTENERS; i++)
+        {
+            MissingLivingEntityEvent.AFTER_DAMAGE.register((entity, source, amount) -> {
+                if (damagedIsPlayer)
+                {
+                    calls++;
+                }
+            });
+            MissingLivingEntityEvent.registerPlayers((player, source, amount) -> calls++);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAMAGE_EVENTS_PER_TICK)
+    public int unfiltered()
+    {
+        for (boolean player : players)
+        {
+            damagedIsPlayer = player;
+            MissingLivingEntityEvent.AFTER_DAMAGE.invoker().afterDamage(null, null, 1);
+        }
+        return calls;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DAMAGE_EVENTS_PER_TICK)
+    public int playersOnly()
+    {
+        for (int i = 0; i < DAMAGE_EVENTS_PER_TICK; i++)
+        {
+            MissingLivingEntityEvent.dispatch(null, players[i], types[i], null, 1);
+        }
+        return calls;
+    }
+}
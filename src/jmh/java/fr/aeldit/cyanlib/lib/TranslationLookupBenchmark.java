@@ -0,0 +1,64 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of resolving a translation the way {@code getTranslation} used to (2 {@code containsKey} and 2
+ * {@code get}), with the current lookup and with a {@link TranslationHandle}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TranslationLookupBenchmark
+{
+    private static final String MODID = "benchmark";
+    private static final String KEY = "msg.key50";
+
+    private final ConcurrentHashMap<String, Map<String, String>> legacyTranslations = new ConcurrentHashMap<>();
+    private TranslationHandle handle;
+
+    @Setup
+    public void setup()
+    {
+        HashMap<String, String> translations = new HashMap<>();
+        for (int i = 0; i < 100; i++)
+        {
+            translations.put("msg.key%d".formatted(i), "Translation %d".formatted(i));
+        }
+        for (int i = 0; i < 10; i++)
+        {
+            legacyTranslations.put("otherMod%d".formatted(i), Map.of());
+        }
+        legacyTranslations.put(MODID, translations);
+
+        CyanLibLanguageUtils.setTranslations(MODID, translations);
+        handle = CyanLibLanguageUtils.getHandle(MODID, KEY);
+    }
+
+    @Benchmark
+    public String legacyLookup()
+    {
+        if (!legacyTranslations.containsKey(MODID) || !legacyTranslations.get(MODID).containsKey(KEY))
+        {
+            return "The translation key '%s' doesn't exist for the mod %s".formatted(KEY, MODID);
+        }
+        return legacyTranslations.get(MODID).get(KEY);
+    }
+
+    @Benchmark
+    public String lookup()
+    {
+        return CyanLibLanguageUtils.getTranslation(MODID, KEY);
+    }
+
+    @Benchmark
+    public String handle()
+    {
+        return handle.getTranslation();
+    }
+}
@@ -0,0 +1,220 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import fr.aeldit.cyanlib.lib.utils.RULES;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A config class with 200 options, used to measure how long it takes to find the options of a large config
+ */
+@SuppressWarnings("unused")
+public class LargeCyanLibConfigImpl implements ICyanLibConfig
+{
+    public static final BooleanOption BOOLEAN_0 = new BooleanOption("boolean0", true);
+    public static final IntegerOption INTEGER_1 = new IntegerOption("integer1", 1, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_2 = new BooleanOption("boolean2", false);
+    public static final IntegerOption INTEGER_3 = new IntegerOption("integer3", 3, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_4 = new BooleanOption("boolean4", true);
+    public static final IntegerOption INTEGER_5 = new IntegerOption("integer5", 5, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_6 = new BooleanOption("boolean6", false);
+    public static final IntegerOption INTEGER_7 = new IntegerOption("integer7", 7, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_8 = new BooleanOption("boolean8", true);
+    public static final IntegerOption INTEGER_9 = new IntegerOption("integer9", 9, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_10 = new BooleanOption("boolean10", false);
+    public static final IntegerOption INTEGER_11 = new IntegerOption("integer11", 11, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_12 = new BooleanOption("boolean12", true);
+    public static final IntegerOption INTEGER_13 = new IntegerOption("integer13", 13, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_14 = new BooleanOption("boolean14", false);
+    public static final IntegerOption INTEGER_15 = new IntegerOption("integer15", 15, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_16 = new BooleanOption("boolean16", true);
+    public static final IntegerOption INTEGER_17 = new IntegerOption("integer17", 17, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_18 = new BooleanOption("boolean18", false);
+    public static final IntegerOption INTEGER_19 = new IntegerOption("integer19", 19, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_20 = new BooleanOption("boolean20", true);
+    public static final IntegerOption INTEGER_21 = new IntegerOption("integer21", 21, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_22 = new BooleanOption("boolean22", false);
+    public static final IntegerOption INTEGER_23 = new IntegerOption("integer23", 23, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_24 = new BooleanOption("boolean24", true);
+    public static final IntegerOption INTEGER_25 = new IntegerOption("integer25", 25, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_26 = new BooleanOption("boolean26", false);
+    public static final IntegerOption INTEGER_27 = new IntegerOption("integer27", 27, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_28 = new BooleanOption("boolean28", true);
+    public static final IntegerOption INTEGER_29 = new IntegerOption("integer29", 29, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_30 = new BooleanOption("boolean30", false);
+    public static final IntegerOption INTEGER_31 = new IntegerOption("integer31", 31, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_32 = new BooleanOption("boolean32", true);
+    public static final IntegerOption INTEGER_33 = new IntegerOption("integer33", 33, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_34 = new BooleanOption("boolean34", false);
+    public static final IntegerOption INTEGER_35 = new IntegerOption("integer35", 35, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_36 = new BooleanOption("boolean36", true);
+    public static final IntegerOption INTEGER_37 = new IntegerOption("integer37", 37, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_38 = new BooleanOption("boolean38", false);
+    public static final IntegerOption INTEGER_39 = new IntegerOption("integer39", 39, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_40 = new BooleanOption("boolean40", true);
+    public static final IntegerOption INTEGER_41 = new IntegerOption("integer41", 41, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_42 = new BooleanOption("boolean42", false);
+    public static final IntegerOption INTEGER_43 = new IntegerOption("integer43", 43, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_44 = new BooleanOption("boolean44", true);
+    public static final IntegerOption INTEGER_45 = new IntegerOption("integer45", 45, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_46 = new BooleanOption("boolean46", false);
+    public static final IntegerOption INTEGER_47 = new IntegerOption("integer47", 47, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_48 = new BooleanOption("boolean48", true);
+    public static final IntegerOption INTEGER_49 = new IntegerOption("integer49", 49, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_50 = new BooleanOption("boolean50", false);
+    public static final IntegerOption INTEGER_51 = new IntegerOption("integer51", 51, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_52 = new BooleanOption("boolean52", true);
+    public static final IntegerOption INTEGER_53 = new IntegerOption("integer53", 53, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_54 = new BooleanOption("boolean54", false);
+    public static final IntegerOption INTEGER_55 = new IntegerOption("integer55", 55, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_56 = new BooleanOption("boolean56", true);
+    public static final IntegerOption INTEGER_57 = new IntegerOption("integer57", 57, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_58 = new BooleanOption("boolean58", false);
+    public static final IntegerOption INTEGER_59 = new IntegerOption("integer59", 59, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_60 = new BooleanOption("boolean60", true);
+    public static final IntegerOption INTEGER_61 = new IntegerOption("integer61", 61, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_62 = new BooleanOption("boolean62", false);
+    public static final IntegerOption INTEGER_63 = new IntegerOption("integer63", 63, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_64 = new BooleanOption("boolean64", true);
+    public static final IntegerOption INTEGER_65 = new IntegerOption("integer65", 65, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_66 = new BooleanOption("boolean66", false);
+    public static final IntegerOption INTEGER_67 = new IntegerOption("integer67", 67, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_68 = new BooleanOption("boolean68", true);
+    public static final IntegerOption INTEGER_69 = new IntegerOption("integer69", 69, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_70 = new BooleanOption("boolean70", false);
+    public static final IntegerOption INTEGER_71 = new IntegerOption("integer71", 71, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_72 = new BooleanOption("boolean72", true);
+    public static final IntegerOption INTEGER_73 = new IntegerOption("integer73", 73, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_74 = new BooleanOption("boolean74", false);
+    public static final IntegerOption INTEGER_75 = new IntegerOption("integer75", 75, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_76 = new BooleanOption("boolean76", true);
+    public static final IntegerOption INTEGER_77 = new IntegerOption("integer77", 77, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_78 = new BooleanOption("boolean78", false);
+    public static final IntegerOption INTEGER_79 = new IntegerOption("integer79", 79, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_80 = new BooleanOption("boolean80", true);
+    public static final IntegerOption INTEGER_81 = new IntegerOption("integer81", 81, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_82 = new BooleanOption("boolean82", false);
+    public static final IntegerOption INTEGER_83 = new IntegerOption("integer83", 83, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_84 = new BooleanOption("boolean84", true);
+    public static final IntegerOption INTEGER_85 = new IntegerOption("integer85", 85, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_86 = new BooleanOption("boolean86", false);
+    public static final IntegerOption INTEGER_87 = new IntegerOption("integer87", 87, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_88 = new BooleanOption("boolean88", true);
+    public static final IntegerOption INTEGER_89 = new IntegerOption("integer89", 89, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_90 = new BooleanOption("boolean90", false);
+    public static final IntegerOption INTEGER_91 = new IntegerOption("integer91", 91, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_92 = new BooleanOption("boolean92", true);
+    public static final IntegerOption INTEGER_93 = new IntegerOption("integer93", 93, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_94 = new BooleanOption("boolean94", false);
+    public static final IntegerOption INTEGER_95 = new IntegerOption("integer95", 95, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_96 = new BooleanOption("boolean96", true);
+    public static final IntegerOption INTEGER_97 = new IntegerOption("integer97", 97, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_98 = new BooleanOption("boolean98", false);
+    public static final IntegerOption INTEGER_99 = new IntegerOption("integer99", 99, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_100 = new BooleanOption("boolean100", true);
+    public static final IntegerOption INTEGER_101 = new IntegerOption("integer101", 101, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_102 = new BooleanOption("boolean102", false);
+    public static final IntegerOption INTEGER_103 = new IntegerOption("integer103", 103, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_104 = new BooleanOption("boolean104", true);
+    public static final IntegerOption INTEGER_105 = new IntegerOption("integer105", 105, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_106 = new BooleanOption("boolean106", false);
+    public static final IntegerOption INTEGER_107 = new IntegerOption("integer107", 107, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_108 = new BooleanOption("boolean108", true);
+    public static final IntegerOption INTEGER_109 = new IntegerOption("integer109", 109, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_110 = new BooleanOption("boolean110", false);
+    public static final IntegerOption INTEGER_111 = new IntegerOption("integer111", 111, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_112 = new BooleanOption("boolean112", true);
+    public static final IntegerOption INTEGER_113 = new IntegerOption("integer113", 113, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_114 = new BooleanOption("boolean114", false);
+    public static final IntegerOption INTEGER_115 = new IntegerOption("integer115", 115, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_116 = new BooleanOption("boolean116", true);
+    public static final IntegerOption INTEGER_117 = new IntegerOption("integer117", 117, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_118 = new BooleanOption("boolean118", false);
+    public static final IntegerOption INTEGER_119 = new IntegerOption("integer119", 119, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_120 = new BooleanOption("boolean120", true);
+    public static final IntegerOption INTEGER_121 = new IntegerOption("integer121", 121, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_122 = new BooleanOption("boolean122", false);
+    public static final IntegerOption INTEGER_123 = new IntegerOption("integer123", 123, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_124 = new BooleanOption("boolean124", true);
+    public static final IntegerOption INTEGER_125 = new IntegerOption("integer125", 125, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_126 = new BooleanOption("boolean126", false);
+    public static final IntegerOption INTEGER_127 = new IntegerOption("integer127", 127, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_128 = new BooleanOption("boolean128", true);
+    public static final IntegerOption INTEGER_129 = new IntegerOption("integer129", 129, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_130 = new BooleanOption("boolean130", false);
+    public static final IntegerOption INTEGER_131 = new IntegerOption("integer131", 131, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_132 = new BooleanOption("boolean132", true);
+    public static final IntegerOption INTEGER_133 = new IntegerOption("integer133", 133, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_134 = new BooleanOption("boolean134", false);
+    public static final IntegerOption INTEGER_135 = new IntegerOption("integer135", 135, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_136 = new BooleanOption("boolean136", true);
+    public static final IntegerOption INTEGER_137 = new IntegerOption("integer137", 137, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_138 = new BooleanOption("boolean138", false);
+    public static final IntegerOption INTEGER_139 = new IntegerOption("integer139", 139, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_140 = new BooleanOption("boolean140", true);
+    public static final IntegerOption INTEGER_141 = new IntegerOption("integer141", 141, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_142 = new BooleanOption("boolean142", false);
+    public static final IntegerOption INTEGER_143 = new IntegerOption("integer143", 143, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_144 = new BooleanOption("boolean144", true);
+    public static final IntegerOption INTEGER_145 = new IntegerOption("integer145", 145, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_146 = new BooleanOption("boolean146", false);
+    public static final IntegerOption INTEGER_147 = new IntegerOption("integer147", 147, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_148 = new BooleanOption("boolean148", true);
+    public static final IntegerOption INTEGER_149 = new IntegerOption("integer149", 149, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_150 = new BooleanOption("boolean150", false);
+    public static final IntegerOption INTEGER_151 = new IntegerOption("integer151", 151, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_152 = new BooleanOption("boolean152", true);
+    public static final IntegerOption INTEGER_153 = new IntegerOption("integer153", 153, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_154 = new BooleanOption("boolean154", false);
+    public static final IntegerOption INTEGER_155 = new IntegerOption("integer155", 155, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_156 = new BooleanOption("boolean156", true);
+    public static final IntegerOption INTEGER_157 = new IntegerOption("integer157", 157, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_158 = new BooleanOption("boolean158", false);
+    public static final IntegerOption INTEGER_159 = new IntegerOption("integer159", 159, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_160 = new BooleanOption("boolean160", true);
+    public static final IntegerOption INTEGER_161 = new IntegerOption("integer161", 161, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_162 = new BooleanOption("boolean162", false);
+    public static final IntegerOption INTEGER_163 = new IntegerOption("integer163", 163, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_164 = new BooleanOption("boolean164", true);
+    public static final IntegerOption INTEGER_165 = new IntegerOption("integer165", 165, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_166 = new BooleanOption("boolean166", false);
+    public static final IntegerOption INTEGER_167 = new IntegerOption("integer167", 167, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_168 = new BooleanOption("boolean168", true);
+    public static final IntegerOption INTEGER_169 = new IntegerOption("integer169", 169, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_170 = new BooleanOption("boolean170", false);
+    public static final IntegerOption INTEGER_171 = new IntegerOption("integer171", 171, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_172 = new BooleanOption("boolean172", true);
+    public static final IntegerOption INTEGER_173 = new IntegerOption("integer173", 173, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_174 = new BooleanOption("boolean174", false);
+    public static final IntegerOption INTEGER_175 = new IntegerOption("integer175", 175, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_176 = new BooleanOption("boolean176", true);
+    public static final IntegerOption INTEGER_177 = new IntegerOption("integer177", 177, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_178 = new BooleanOption("boolean178", false);
+    public static final IntegerOption INTEGER_179 = new IntegerOption("integer179", 179, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_180 = new BooleanOption("boolean180", true);
+    public static final IntegerOption INTEGER_181 = new IntegerOption("integer181", 181, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_182 = new BooleanOption("boolean182", false);
+    public static final IntegerOption INTEGER_183 = new IntegerOption("integer183", 183, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_184 = new BooleanOption("boolean184", true);
+    public static final IntegerOption INTEGER_185 = new IntegerOption("integer185", 185, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_186 = new BooleanOption("boolean186", false);
+    public static final IntegerOption INTEGER_187 = new IntegerOption("integer187", 187, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_188 = new BooleanOption("boolean188", true);
+    public static final IntegerOption INTEGER_189 = new IntegerOption("integer189", 189, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_190 = new BooleanOption("boolean190", false);
+    public static final IntegerOption INTEGER_191 = new IntegerOption("integer191", 191, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_192 = new BooleanOption("boolean192", true);
+    public static final IntegerOption INTEGER_193 = new IntegerOption("integer193", 193, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_194 = new BooleanOption("boolean194", false);
+    public static final IntegerOption INTEGER_195 = new IntegerOption("integer195", 195, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_196 = new BooleanOption("boolean196", true);
+    public static final IntegerOption INTEGER_197 = new IntegerOption("integer197", 197, RULES.RANGE, 0, 512);
+    public static final BooleanOption BOOLEAN_198 = new BooleanOption("boolean198", false);
+    public static final IntegerOption INTEGER_199 = new IntegerOption("integer199", 199, RULES.RANGE, 0, 512);
+
+    @Override
+    public Map<String, String> getDefaultTranslations()
+    {
+        return new HashMap<>(0);
+    }
+}
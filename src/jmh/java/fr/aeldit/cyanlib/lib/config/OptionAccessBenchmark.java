@@ -0,0 +1,51 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import fr.aeldit.cyanlib.lib.utils.RULES;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading the options values through the boxed {@link IOption#getValue()} and through the primitive
+ * accessors, the way {@code CombatTracking.isPlayerInCombat} does on each combat check
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OptionAccessBenchmark
+{
+    // Outside the Integer cache, so boxing it allocates
+    private final IntegerOption combatTimeout = new IntegerOption("combatTimeout", 1500, RULES.POSITIVE_VALUE);
+    private final BooleanOption msgToActionBar = new BooleanOption("msgToActionBar", true);
+    private final IOption<?> genericOption = combatTimeout;
+
+    @Benchmark
+    public long intBoxed()
+    {
+        return combatTimeout.getValue() * 1000L;
+    }
+
+    @Benchmark
+    public long intBoxedThroughInterface()
+    {
+        return (Integer) genericOption.getValue() * 1000L;
+    }
+
+    @Benchmark
+    public long intPrimitive()
+    {
+        return combatTimeout.getInt() * 1000L;
+    }
+
+    @Benchmark
+    public boolean booleanBoxed()
+    {
+        return msgToActionBar.getValue();
+    }
+
+    @Benchmark
+    public boolean booleanPrimitive()
+    {
+        return msgToActionBar.getBoolean();
+    }
+}
@@ -0,0 +1,34 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares finding the options of a large config class with reflection and with the registry generated by the
+ * annotation processor.
+ * <p>
+ * Each measurement is a single call in a fresh JVM, since this only happens once at startup, when the classes and
+ * the reflection data are not loaded yet
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class OptionRegistryBenchmark
+{
+    @Benchmark
+    public OptionDescriptorTable reflection()
+    {
+        return OptionDescriptorTable.scan(LargeCyanLibConfigImpl.class);
+    }
+
+    @Benchmark
+    public OptionDescriptorTable generatedRegistry()
+    {
+        ICyanLibOptionRegistry registry = OptionDescriptorTable.findRegistry(LargeCyanLibConfigImpl.class);
+        return registry == null ? null : OptionDescriptorTable.fromRegistry(registry);
+    }
+}
@@ -1,13 +1,29 @@
 package fr.aeldit.cyanlib.core;
 
 import fr.aeldit.cyanlib.core.config.CyanLibConfigImpl;
+import fr.aeldit.cyanlib.events.MissingLivingEntityEvent;
+import fr.aeldit.cyanlib.events.PlayerMovedEvent;
+import fr.aeldit.cyanlib.lib.CombatTracking;
 import fr.aeldit.cyanlib.lib.CyanLib;
 import fr.aeldit.cyanlib.lib.commands.CyanLibConfigCommands;
+import fr.aeldit.cyanlib.lib.config.CyanLibConfigWatcher;
+import fr.aeldit.cyanlib.lib.config.CyanLibConfigWriter;
+import fr.aeldit.cyanlib.lib.utils.PlayerSpatialIndex;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.fabricmc.fabric.api.entity.event.v1.ServerEntityWorldChangeEvents;
+import net.fabricmc.fabric.api.entity.event.v1.ServerPlayerEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
+//? if >1.20.6 {
+import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+//?}
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static fr.aeldit.cyanlib.core.config.CyanLibConfigImpl.HOT_RELOAD_CONFIGS;
+
 public class CyanLibCore implements ModInitializer
 {
     public static final String CYANLIB_MODID = "cyanlib";
@@ -22,6 +38,46 @@ public class CyanLibCore implements ModInitializer
                 (dispatcher, dedicated, environment) -> new CyanLibConfigCommands(CYANLIB_MODID, LIB_UTILS).register(
                         dispatcher)
         );
+        //? if >1.20.6 {
+        // The damage event is fired by Fabric API on these versions
+        ServerLivingEntityEvents.AFTER_DAMAGE.register(
+                (entity, source, baseDamageTaken, damageTaken, blocked) -> MissingLivingEntityEvent.dispatch(
+                        entity, source, baseDamageTaken
+                )
+        );
+        //?}
+        MissingLivingEntityEvent.registerPlayers(CombatTracking::onPlayerDamaged);
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+            CombatTracking.onPlayerDisconnected(handler.getPlayer());
+            PlayerSpatialIndex.remove(handler.getPlayer().getUuid());
+        });
+        ServerPlayConnectionEvents.JOIN.register(
+                (handler, sender, server) -> PlayerSpatialIndex.update(handler.getPlayer())
+        );
+        PlayerMovedEvent.AFTER_MOVE.register(PlayerSpatialIndex::update);
+        ServerPlayerEvents.AFTER_RESPAWN.register(
+                (oldPlayer, newPlayer, alive) -> PlayerSpatialIndex.update(newPlayer)
+        );
+        ServerEntityWorldChangeEvents.AFTER_PLAYER_CHANGE_WORLD.register(
+                (player, origin, destination) -> PlayerSpatialIndex.update(player)
+        );
+        ServerTickEvents.START_SERVER_TICK.register(server -> CombatTracking.onServerTick());
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            CombatTracking.onServerTickEnd();
+            PlayerMovedEvent.onServerTickEnd();
+        });
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            if (HOT_RELOAD_CONFIGS.getBoolean())
+            {
+                CyanLibConfigWatcher.start();
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> PlayerSpatialIndex.clear());
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            CyanLibConfigWatcher.stop();
+            // Saves the configs changes that are still waiting to be written
+            CyanLibConfigWriter.flushAll();
+        });
         LOGGER.info("[CyanLib] Successfully initialized");
     }
 }
@@ -15,6 +15,7 @@ public class CyanLibConfigImpl implements ICyanLibConfig
     public static final IntegerOption MIN_OP_LVL_EDIT_CONFIG = new IntegerOption(
             "minOpLvlEditConfig", 4, RULES.OP_LEVELS
     );
+    public static final BooleanOption HOT_RELOAD_CONFIGS = new BooleanOption("hotReloadConfigs", false);
 
     @Override
     public Map<String, String> getDefaultTranslations()
@@ -37,6 +38,7 @@ public class CyanLibConfigImpl implements ICyanLibConfig
                 // SETS
                 entry("msg.set.msgToActionBar", "§3Toggled messages to action bar %s"),
                 entry("msg.set.minOpLvlEditConfig", "§3The minimum OP level required to edit the config is now %s"),
+                entry("msg.set.hotReloadConfigs", "§3Toggled configs hot-reload %s §3(applied on the next start)"),
 
                 // CONFIG
                 entry(
@@ -48,11 +50,17 @@ public class CyanLibConfigImpl implements ICyanLibConfig
                         "msg.getDesc.minOpLvlEditConfig",
                         "§3The§d minOpLevelExeEditConfig §3option defines the OP level required to edit the config"
                 ),
+                entry(
+                        "msg.getDesc.hotReloadConfigs",
+                        "§3The§d hotReloadConfigs §3option defines whether the configs of the mods using CyanLib are "
+                        + "reloaded when their file is modified"
+                ),
 
                 // GET_CFG
                 entry("msg.getCfg.header", "§6CyanLib - OPTIONS\n"),
                 entry("msg.getCfg.msgToActionBar", "§6- §3Messages to action bar : %s"),
-                entry("msg.getCfg.minOpLvlEditConfig", "§6- §3Minimum OP level required to edit the config : %s")
+                entry("msg.getCfg.minOpLvlEditConfig", "§6- §3Minimum OP level required to edit the config : %s"),
+                entry("msg.getCfg.hotReloadConfigs", "§6- §3Hot-reload the configs : %s")
         );
     }
 }
@@ -0,0 +1,48 @@
+package fr.aeldit.cyanlib.events;
+
+import net.fabricmc.fabric.api.event.Event;
+import net.fabricmc.fabric.api.event.EventFactory;
+
+import java.util.UUID;
+
+public class CombatEvents
+{
+    /**
+     * An event that is called when a player who was not in combat is hurt and enters combat. This is fired from
+     * {@code CombatTracking.addEntry}
+     */
+    public static final Event<Entered> ENTERED = EventFactory.createArrayBacked(
+            Entered.class, callbacks -> (playerUuid) -> {
+                for (Entered callback : callbacks)
+                {
+                    callback.onEnteredCombat(playerUuid);
+                }
+            }
+    );
+
+    /**
+     * An event that is called when the combat of a player ends, because they were not hurt during the whole combat
+     * duration, or because they left the server. This is fired at the end of the server tick during which the combat
+     * ended, or from {@code CombatTracking.removePlayerOnPlayerQuit}
+     */
+    public static final Event<Left> LEFT = EventFactory.createArrayBacked(
+            Left.class, callbacks -> (playerUuid) -> {
+                for (Left callback : callbacks)
+                {
+                    callback.onLeftCombat(playerUuid);
+                }
+            }
+    );
+
+    @FunctionalInterface
+    public interface Entered
+    {
+        void onEnteredCombat(UUID playerUuid);
+    }
+
+    @FunctionalInterface
+    public interface Left
+    {
+        void onLeftCombat(UUID playerUuid);
+    }
+}
@@ -2,8 +2,16 @@ package fr.aeldit.cyanlib.events;
 
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.entity.EntityType;
 import net.minecraft.entity.LivingEntity;
 import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
 
 /**
  * Taken from fabric-api 1.21.5
@@ -29,6 +37,107 @@ public class MissingLivingEntityEvent
             }
     );
 
+    private record FilteredListener(Predicate<LivingEntity> filter, AfterDamage callback)
+    {
+    }
+
+    // Copied on each registration, so that the dispatch never locks. The listeners are expected to be registered
+    // during the initialization of the mods
+    private static volatile AfterPlayerDamage[] playerListeners = new AfterPlayerDamage[0];
+    private static volatile Map<EntityType<?>, AfterDamage[]> typeListeners = Map.of();
+    private static volatile FilteredListener[] filteredListeners = new FilteredListener[0];
+
+    /**
+     * Registers a listener of {@link #AFTER_DAMAGE} that is only called when a player is damaged. The damage done to
+     * the other entities (like in mob farms) doesn't call any listener registered with this method
+     */
+    public static synchronized void registerPlayers(@NotNull AfterPlayerDamage callback)
+    {
+        AfterPlayerDamage[] listeners = Arrays.copyOf(playerListeners, playerListeners.length + 1);
+        listeners[listeners.length - 1] = callback;
+        playerListeners = listeners;
+    }
+
+    /**
+     * Registers a listener of {@link #AFTER_DAMAGE} that is only called when an entity of the given type is damaged
+     */
+    public static synchronized void registerFor(@NotNull EntityType<?> type, @NotNull AfterDamage callback)
+    {
+        IdentityHashMap<EntityType<?>, AfterDamage[]> listeners = new IdentityHashMap<>(typeListeners);
+        AfterDamage[] typeCallbacks = listeners.getOrDefault(type, new AfterDamage[0]);
+        typeCallbacks = Arrays.copyOf(typeCallbacks, typeCallbacks.length + 1);
+        typeCallbacks[typeCallbacks.length - 1] = callback;
+        listeners.put(type, typeCallbacks);
+        typeListeners = listeners;
+    }
+
+    /**
+     * Registers a listener of {@link #AFTER_DAMAGE} that is only called when the filter returns {@code true} for the
+     * damaged entity. {@link #registerPlayers} and {@link #registerFor} should be preferred when possible, because
+     * they don't need to call a filter for each damaged entity
+     */
+    public static synchronized void registerFiltered(
+            @NotNull Predicate<LivingEntity> filter, @NotNull AfterDamage callback
+    )
+    {
+        FilteredListener[] listeners = Arrays.copyOf(filteredListeners, filteredListeners.length + 1);
+        listeners[listeners.length - 1] = new FilteredListener(filter, callback);
+        filteredListeners = listeners;
+    }
+
+    /**
+     * Calls the listeners registered with {@link #registerPlayers}, {@link #registerFor} and
+     * {@link #registerFiltered} that match the damaged entity. This is called after {@link #AFTER_DAMAGE} on the
+     * versions where CyanLib fires it, and from the equivalent Fabric API event on the other ones
+     */
+    public static void dispatch(@NotNull LivingEntity entity, DamageSource source, float amount)
+    {
+        dispatch(entity, entity instanceof ServerPlayerEntity, entity.getType(), source, amount);
+    }
+
+    // Takes what is read from the entity separately, so that the benchmarks don't need to create entities
+    static void dispatch(LivingEntity entity, boolean isPlayer, EntityType<?> type, DamageSource source, float amount)
+    {
+        if (isPlayer)
+        {
+            ServerPlayerEntity player = (ServerPlayerEntity) entity;
+            for (AfterPlayerDamage callback : playerListeners)
+            {
+                callback.afterPlayerDamage(player, source, amount);
+            }
+        }
+
+        Map<EntityType<?>, AfterDamage[]> byType = typeListeners;
+        if (!byType.isEmpty())
+        {
+            AfterDamage[] callbacks = byType.get(type);
+            if (callbacks != null)
+            {
+                for (AfterDamage callback : callbacks)
+                {
+                    callback.afterDamage(entity, source, amount);
+                }
+            }
+        }
+
+        for (FilteredListener listener : filteredListeners)
+        {
+            if (listener.filter().test(entity))
+            {
+                listener.callback().afterDamage(entity, source, amount);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface AfterPlayerDamage
+    {
+        /**
+         * @see AfterDamage#afterDamage
+         */
+        void afterPlayerDamage(ServerPlayerEntity player, DamageSource source, float amount);
+    }
+
     @FunctionalInterface
     public interface AfterDamage
     {
@@ -0,0 +1,69 @@
+package fr.aeldit.cyanlib.events;
+
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The players who moved during a server tick, given to the {@link PlayerMovedEvent.AfterMoves} listeners.
+ * <p>
+ * The same buffer is reused at each tick, so it must only be read during the call to the listener. Use
+ * {@link #toList()} to keep the players (for example to give them to another thread)
+ */
+public final class MovedPlayers
+{
+    private ServerPlayerEntity[] players = new ServerPlayerEntity[64];
+    private int size;
+
+    MovedPlayers()
+    {
+    }
+
+    void add(@NotNull ServerPlayerEntity player)
+    {
+        if (size == players.length)
+        {
+            players = Arrays.copyOf(players, size * 2);
+        }
+        players[size++] = player;
+    }
+
+    void clear()
+    {
+        // Doesn't keep the players who left the server in memory
+        Arrays.fill(players, 0, size, null);
+        size = 0;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of the player, between {@code 0} and {@link #size()} (excluded)
+     */
+    public @NotNull ServerPlayerEntity get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return players[index];
+    }
+
+    /**
+     * @return an immutable copy of the players, which can be kept after the listener returned
+     */
+    public @NotNull List<ServerPlayerEntity> toList()
+    {
+        return List.of(Arrays.copyOf(players, size));
+    }
+}
@@ -0,0 +1,46 @@
+package fr.aeldit.cyanlib.events;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+
+import java.util.Arrays;
+
+/**
+ * The positions of a player used by the {@link PlayerMovedEvent} variants, stored once per player by
+ * {@code ServerPlayerEntityMixin}
+ */
+public final class PlayerMoveState
+{
+    // The world in which the positions were recorded
+    RegistryKey<World> world;
+    BlockPos lastBlockPos;
+    // The position of the player the last time each distance listener ran (x, y, z for each listener), NaN if unset
+    double[] anchors = new double[0];
+    // The tick during which the player was last added to the batch of moved players
+    long batchTick = -1;
+
+    /**
+     * Forgets the positions recorded in another world, as they can't be compared with the ones of this world
+     */
+    void setWorld(RegistryKey<World> world)
+    {
+        if (!world.equals(this.world))
+        {
+            this.world   = world;
+            lastBlockPos = null;
+            Arrays.fill(anchors, Double.NaN);
+        }
+    }
+
+    double[] getAnchors(int listenersCount)
+    {
+        if (anchors.length < listenersCount * 3)
+        {
+            int previousLength = anchors.length;
+            anchors = Arrays.copyOf(anchors, listenersCount * 3);
+            Arrays.fill(anchors, previousLength, anchors.length, Double.NaN);
+        }
+        return anchors;
+    }
+}
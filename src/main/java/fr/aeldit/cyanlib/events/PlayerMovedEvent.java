@@ -2,13 +2,19 @@ package fr.aeldit.cyanlib.events;
 
 import net.fabricmc.fabric.api.event.Event;
 import net.fabricmc.fabric.api.event.EventFactory;
+import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
 
 public class PlayerMovedEvent
 {
     /**
      * An event that is called after a player moved. This is fired from {@link ServerPlayerEntity#applyMovementEffects}
-     * after moving
+     * after moving, which Minecraft only calls when the block position of the player changed
      */
     public static final Event<AfterMove> AFTER_MOVE = EventFactory.createArrayBacked(
             AfterMove.class, callbacks -> (player) -> {
@@ -19,9 +25,204 @@ public class PlayerMovedEvent
             }
     );
 
+    /**
+     * An event that is called after a player moved into another block. It is fired at the same time as
+     * {@link #AFTER_MOVE}, the only differences being that it gives the previous and current block positions, and that
+     * it is not called for the first position of the player after they joined the server or changed world
+     */
+    public static final Event<BlockChanged> BLOCK_CHANGED = EventFactory.createArrayBacked(
+            BlockChanged.class, callbacks -> (player, previous, current) -> {
+                for (BlockChanged callback : callbacks)
+                {
+                    callback.onBlockChanged(player, previous, current);
+                }
+            }
+    );
+
+    /**
+     * An event that is called after a player moved into another chunk. It is not called for the first position of the
+     * player after they joined the server or changed world
+     */
+    public static final Event<ChunkChanged> CHUNK_CHANGED = EventFactory.createArrayBacked(
+            ChunkChanged.class, callbacks -> (player, previousX, previousZ, currentX, currentZ) -> {
+                for (ChunkChanged callback : callbacks)
+                {
+                    callback.onChunkChanged(player, previousX, previousZ, currentX, currentZ);
+                }
+            }
+    );
+
+    private record DistanceListener(int index, double squaredDistance, DistanceMoved callback)
+    {
+    }
+
+    private static volatile DistanceListener[] distanceListeners = new DistanceListener[0];
+    private static volatile AfterMoves[] batchListeners = new AfterMoves[0];
+    // Only accessed on the server thread
+    private static final MovedPlayers movedPlayers = new MovedPlayers();
+    private static long batchTick;
+
     @FunctionalInterface
     public interface AfterMove
     {
         void afterMove(ServerPlayerEntity player);
     }
+
+    @FunctionalInterface
+    public interface BlockChanged
+    {
+        void onBlockChanged(ServerPlayerEntity player, BlockPos previous, BlockPos current);
+    }
+
+    @FunctionalInterface
+    public interface ChunkChanged
+    {
+        /**
+         * The chunks are given by their coordinates ({@code blockX >> 4} and {@code blockZ >> 4})
+         */
+        void onChunkChanged(ServerPlayerEntity player, int previousX, int previousZ, int currentX, int currentZ);
+    }
+
+    @FunctionalInterface
+    public interface AfterMoves
+    {
+        /**
+         * Called once at the end of each server tick during which at least one player moved
+         *
+         * @param players the players who moved during the tick, each player being present only once. Some of them may
+         *                have left the server since they moved
+         */
+        void afterMoves(MovedPlayers players);
+    }
+
+    @FunctionalInterface
+    public interface DistanceMoved
+    {
+        /**
+         * The previous position is the one of the player the last time this listener was called for them (or when they
+         * joined the server or entered their current world). The current position is the one of the player
+         */
+        void onDistanceMoved(ServerPlayerEntity player, double previousX, double previousY, double previousZ);
+    }
+
+    /**
+     * Registers a listener that is called when a player moved more than {@code distance} blocks since the last time
+     * it was called for them. The positions are tracked once per player, so this costs nothing when the players move
+     * less than that
+     *
+     * @param distance the distance in blocks
+     */
+    public static synchronized void registerDistance(double distance, @NotNull DistanceMoved callback)
+    {
+        DistanceListener[] listeners = Arrays.copyOf(distanceListeners, distanceListeners.length + 1);
+        listeners[listeners.length - 1] = new DistanceListener(listeners.length - 1, distance * distance, callback);
+        distanceListeners = listeners;
+    }
+
+    /**
+     * Registers a listener that receives all the players who moved during a tick at once, at the end of the tick,
+     * instead of being called for each move like {@link #AFTER_MOVE}. The players are only collected if a listener is
+     * registered
+     */
+    public static synchronized void registerBatched(@NotNull AfterMoves callback)
+    {
+        AfterMoves[] listeners = Arrays.copyOf(batchListeners, batchListeners.length + 1);
+        listeners[listeners.length - 1] = callback;
+        batchListeners = listeners;
+    }
+
+    /**
+     * Called by CyanLib at the end of each server tick, to give the players who moved to the batched listeners
+     */
+    public static void onServerTickEnd()
+    {
+        batchTick++;
+        if (movedPlayers.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            for (AfterMoves listener : batchListeners)
+            {
+                listener.afterMoves(movedPlayers);
+            }
+        }
+        finally
+        {
+            movedPlayers.clear();
+        }
+    }
+
+    /**
+     * Called by {@code ServerPlayerEntityMixin} each time {@link #AFTER_MOVE} is fired, with the new block position
+     * of the player
+     */
+    public static void onPlayerMoved(
+            @NotNull ServerPlayerEntity player, @NotNull BlockPos pos, @NotNull PlayerMoveState state
+    )
+    {
+        onPlayerMoved(
+                player, player.getWorld().getRegistryKey(), pos, player.getX(), player.getY(), player.getZ(), state
+        );
+    }
+
+    static void onPlayerMoved(
+            ServerPlayerEntity player, @NotNull RegistryKey<World> world, @NotNull BlockPos pos,
+            double x, double y, double z, @NotNull PlayerMoveState state
+    )
+    {
+        AFTER_MOVE.invoker().afterMove(player);
+        if (batchListeners.length != 0 && state.batchTick != batchTick)
+        {
+            state.batchTick = batchTick;
+            movedPlayers.add(player);
+        }
+
+        state.setWorld(world);
+        BlockPos previous = state.lastBlockPos;
+        state.lastBlockPos = pos.toImmutable();
+        DistanceListener[] listeners = distanceListeners;
+        double[] anchors = state.getAnchors(listeners.length);
+
+        if (previous != null && !previous.equals(pos))
+        {
+            BLOCK_CHANGED.invoker().onBlockChanged(player, previous, state.lastBlockPos);
+            int previousChunkX = previous.getX() >> 4;
+            int previousChunkZ = previous.getZ() >> 4;
+            if (previousChunkX != pos.getX() >> 4 || previousChunkZ != pos.getZ() >> 4)
+            {
+                CHUNK_CHANGED.invoker().onChunkChanged(
+                        player, previousChunkX, previousChunkZ, pos.getX() >> 4, pos.getZ() >> 4
+                );
+            }
+        }
+
+        for (DistanceListener listener : listeners)
+        {
+            int i = listener.index() * 3;
+            double anchorX = anchors[i];
+            double anchorY = anchors[i + 1];
+            double anchorZ = anchors[i + 2];
+            if (Double.isNaN(anchorX))
+            {
+                anchors[i]     = x;
+                anchors[i + 1] = y;
+                anchors[i + 2] = z;
+                continue;
+            }
+
+            double dx = x - anchorX;
+            double dy = y - anchorY;
+            double dz = z - anchorZ;
+            if (dx * dx + dy * dy + dz * dz >= listener.squaredDistance())
+            {
+                anchors[i]     = x;
+                anchors[i + 1] = y;
+                anchors[i + 2] = z;
+                listener.callback().onDistanceMoved(player, anchorX, anchorY, anchorZ);
+            }
+        }
+    }
 }
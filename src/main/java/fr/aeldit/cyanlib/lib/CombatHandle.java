@@ -0,0 +1,63 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+import java.util.function.IntSupplier;
+
+/**
+ * The view of a mod on the combats recorded by {@link CombatTracking}, with its own combat duration.
+ * <p>
+ * Handles are obtained with {@link CombatTracking#getHandle}, and only read the shared tracker, so any number of mods
+ * can use them without adding work to each hit
+ */
+public final class CombatHandle
+{
+    private final String modid;
+    private final IntSupplier combatTicks;
+
+    CombatHandle(String modid, IntSupplier combatTicks)
+    {
+        this.modid       = modid;
+        this.combatTicks = combatTicks;
+    }
+
+    public String getModid()
+    {
+        return modid;
+    }
+
+    /**
+     * @return the duration of the combat of this mod, in ticks
+     */
+    public int getCombatTicks()
+    {
+        return combatTicks.getAsInt();
+    }
+
+    /**
+     * @return whether the player was hurt, or attacked another player, during the combat duration of this mod
+     */
+    public boolean isInCombat(@NotNull UUID playerUuid)
+    {
+        return CombatTracking.isPlayerInCombat(playerUuid, getCombatTicks());
+    }
+
+    /**
+     * @return the last player that attacked the given player during the combat duration of this mod, or {@code null}
+     * if the player was not attacked by a player
+     */
+    public @Nullable UUID getLastAttacker(@NotNull UUID playerUuid)
+    {
+        return CombatTracking.getLastAttacker(playerUuid, getCombatTicks());
+    }
+
+    /**
+     * @return whether one of the players was the last to attack the other one, during the combat duration of this mod
+     */
+    public boolean isInCombatWith(@NotNull UUID playerUuid, @NotNull UUID otherUuid)
+    {
+        return otherUuid.equals(getLastAttacker(playerUuid)) || playerUuid.equals(getLastAttacker(otherUuid));
+    }
+}
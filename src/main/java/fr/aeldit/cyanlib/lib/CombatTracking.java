@@ -1,28 +1,332 @@
 package fr.aeldit.cyanlib.lib;
 
+import fr.aeldit.cyanlib.events.CombatEvents;
+import fr.aeldit.cyanlib.lib.config.IOption;
 import fr.aeldit.cyanlib.lib.config.IntegerOption;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.damage.DamageSource;
+import net.minecraft.server.network.ServerPlayerEntity;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Tracks the players that are in combat.
+ * <p>
+ * CyanLib records every hit received by a player (and the player that attacked them, if any) from its own damage
+ * hook, and removes the players when they disconnect, so the mods don't need to register their own listeners. They
+ * can instead query the combats with a {@link CombatHandle}, obtained with {@link #getHandle}
+ */
 public abstract class CombatTracking
 {
+    /**
+     * The source of the time used to timestamp the hits, in ticks. It must never go backwards
+     */
+    @FunctionalInterface
+    public interface Clock
+    {
+        long getTicks();
+    }
+
+    /**
+     * Counts the server ticks. The value is only updated once per tick, so reading it is as cheap as reading a field,
+     * and it can't jump like the wall-clock time
+     */
+    public static final Clock TICK_CLOCK = () -> CombatTracking.currentTick;
+    /**
+     * Counts the time elapsed since an arbitrary origin with {@link System#nanoTime()}, in 50 ms ticks. Unlike
+     * {@link #TICK_CLOCK}, it keeps counting when the server lags
+     */
+    public static final Clock NANO_CLOCK = () -> System.nanoTime() / 50_000_000L;
+
+    /**
+     * The duration of the combat used by {@link #addEntry(UUID)}, in ticks (1 minute)
+     */
+    public static final int DEFAULT_COMBAT_TICKS = 60 * 20;
+
+    private static final long NO_ENTRY = Long.MIN_VALUE;
+
+    private static volatile long currentTick;
+    private static volatile Clock clock = TICK_CLOCK;
+    // Keyed by the UUID of the players, with the ticks stored as primitives, so that recording a hit and checking if a
+    // player is in combat don't allocate
+    private static final UuidLongMap lastHurtTicks = new UuidLongMap();
+    // The tick at which the combat of each player ends. The players are in this map exactly while they are in combat
+    private static final UuidLongMap combatEndTicks = new UuidLongMap();
+    private static final TimingWheel combatExpiry = new TimingWheel(CombatTracking::onCombatDeadline);
+    // The last player that attacked each player (the most and least significant bits of their UUID), and the tick of
+    // that attack, stored together so that they are always read from the same attack
+    private static final UuidLongMap lastAttacks = new UuidLongMap(3);
+    private static final ConcurrentHashMap<String, CombatHandle> handles = new ConcurrentHashMap<>();
+    // The longest combat duration of the handles, computed when they change so that the hits don't look at each of
+    // them. Only written while holding the handles lock
+    private static volatile int maxCombatTicks = DEFAULT_COMBAT_TICKS;
+    private static final IOption.ChangeListener<Integer> COMBAT_TIMEOUT_LISTENER =
+            (option, oldValue, newValue) -> updateMaxCombatTicks();
+    // Kept until the player quits, as the timeout is only known when querying
     private static final ConcurrentHashMap<String, Long> lastHurtTime = new ConcurrentHashMap<>();
 
+    /**
+     * Called by CyanLib at the start of each server tick
+     */
+    public static void onServerTick()
+    {
+        currentTick++;
+    }
+
+    /**
+     * Called by CyanLib at the end of each server tick, to remove the players whose combat ended
+     */
+    public static void onServerTickEnd()
+    {
+        combatExpiry.advance(clock.getTicks(), CombatEvents.LEFT.invoker()::onLeftCombat);
+    }
+
+    private static long onCombatDeadline(UUID playerUuid, long deadline)
+    {
+        long end = combatEndTicks.get(playerUuid, NO_ENTRY);
+        if (end == NO_ENTRY)
+        {
+            // Already removed when the player left
+            return TimingWheel.DISCARD;
+        }
+        if (end > deadline)
+        {
+            // The player was hurt again
+            return end;
+        }
+        if (combatEndTicks.remove(playerUuid, end))
+        {
+            lastHurtTicks.remove(playerUuid);
+            removeAttacker(playerUuid);
+            return TimingWheel.REMOVE;
+        }
+        // The player was hurt while we were removing them
+        return combatEndTicks.get(playerUuid, deadline);
+    }
+
+    /**
+     * Called by CyanLib each time a player is damaged
+     */
+    public static void onPlayerDamaged(@NotNull ServerPlayerEntity player, DamageSource source, float amount)
+    {
+        Entity attacker = source == null ? null : source.getAttacker();
+        recordHit(
+                player.getUuid(),
+                attacker instanceof ServerPlayerEntity && attacker != player ? attacker.getUuid() : null
+        );
+    }
+
+    /**
+     * Puts the victim and the attacker in combat for the longest duration used by the handles
+     */
+    static void recordHit(@NotNull UUID victimUuid, @Nullable UUID attackerUuid)
+    {
+        int combatTicks = maxCombatTicks;
+        if (attackerUuid != null)
+        {
+            lastAttacks.put(
+                    victimUuid, attackerUuid.getMostSignificantBits(), attackerUuid.getLeastSignificantBits(),
+                    clock.getTicks()
+            );
+            addEntry(attackerUuid, combatTicks);
+        }
+        addEntry(victimUuid, combatTicks);
+    }
+
+    private static void removeAttacker(UUID victimUuid)
+    {
+        lastAttacks.remove(victimUuid);
+    }
+
+    /**
+     * Returns the handle used by the given mod to query the combats, which considers that the players are in combat
+     * during {@code combatTimeoutSeconds} after their last hit. Calling this again for the same mod replaces its
+     * handle
+     *
+     * @param combatTimeoutSeconds the duration of the combat, in seconds (20 ticks). It is read on each query, so it
+     *                             can be changed at any time
+     */
+    public static @NotNull CombatHandle getHandle(@NotNull String modid, @NotNull IntegerOption combatTimeoutSeconds)
+    {
+        CombatHandle handle = new CombatHandle(modid, () -> combatTimeoutSeconds.getInt() * 20);
+        // Removed first, so that getting the handle again doesn't add the listener twice
+        combatTimeoutSeconds.removeListener(COMBAT_TIMEOUT_LISTENER);
+        combatTimeoutSeconds.addListener(COMBAT_TIMEOUT_LISTENER);
+        putHandle(handle);
+        return handle;
+    }
+
+    /**
+     * @param combatTicks the duration of the combat, in ticks
+     * @see #getHandle(String, IntegerOption)
+     */
+    public static @NotNull CombatHandle getHandle(@NotNull String modid, int combatTicks)
+    {
+        CombatHandle handle = new CombatHandle(modid, () -> combatTicks);
+        putHandle(handle);
+        return handle;
+    }
+
+    private static void putHandle(@NotNull CombatHandle handle)
+    {
+        synchronized (handles)
+        {
+            handles.put(handle.getModid(), handle);
+            updateMaxCombatTicks();
+        }
+    }
+
+    private static void updateMaxCombatTicks()
+    {
+        synchronized (handles)
+        {
+            int combatTicks = DEFAULT_COMBAT_TICKS;
+            for (CombatHandle handle : handles.values())
+            {
+                combatTicks = Math.max(combatTicks, handle.getCombatTicks());
+            }
+            maxCombatTicks = combatTicks;
+        }
+    }
+
+    /**
+     * @return the last player that attacked the given player less than {@code timeoutTicks} ticks ago, or
+     * {@code null} if there is none
+     */
+    static @Nullable UUID getLastAttacker(UUID playerUuid, int timeoutTicks)
+    {
+        long[] attack = new long[3];
+        if (!lastAttacks.get(playerUuid, attack) || clock.getTicks() - attack[2] >= timeoutTicks)
+        {
+            return null;
+        }
+        return new UUID(attack[0], attack[1]);
+    }
+
+    /**
+     * Changes the clock used to timestamp the hits (the default being {@link #TICK_CLOCK}), which can be used by tests
+     * to control the time. The entries added with the previous clock should be removed before changing it
+     */
+    public static void setClock(Clock clock)
+    {
+        CombatTracking.clock = clock;
+    }
+
+    /**
+     * Records that the player was hurt now. The player stays in combat during {@code combatTicks} ticks, after which
+     * the entry is removed and {@link CombatEvents#LEFT} is fired, unless they are hurt again.
+     * <p>
+     * If the player was not already in combat, {@link CombatEvents#ENTERED} is fired
+     *
+     * @param playerUuid  the UUID of the player
+     * @param combatTicks the duration of the combat, in ticks
+     */
+    public static void addEntry(UUID playerUuid, int combatTicks)
+    {
+        long now = clock.getTicks();
+        lastHurtTicks.put(playerUuid, now);
+        if (combatEndTicks.putIfGreater(playerUuid, now + combatTicks, NO_ENTRY) == NO_ENTRY)
+        {
+            combatExpiry.schedule(playerUuid, now + combatTicks);
+            CombatEvents.ENTERED.invoker().onEnteredCombat(playerUuid);
+        }
+    }
+
+    /**
+     * @param combatTimeoutSeconds the duration of the combat, in seconds (20 ticks)
+     * @see #addEntry(UUID, int)
+     */
+    public static void addEntry(UUID playerUuid, IntegerOption combatTimeoutSeconds)
+    {
+        addEntry(playerUuid, combatTimeoutSeconds.getInt() * 20);
+    }
+
+    /**
+     * Same as {@link #addEntry(UUID, int)}, with a combat of {@link #DEFAULT_COMBAT_TICKS}
+     */
+    public static void addEntry(UUID playerUuid)
+    {
+        addEntry(playerUuid, DEFAULT_COMBAT_TICKS);
+    }
+
+    /**
+     * @return whether the combat of the player started with {@link #addEntry} is not over
+     */
+    public static boolean isPlayerInCombat(UUID playerUuid)
+    {
+        long end = combatEndTicks.get(playerUuid, NO_ENTRY);
+        return end != NO_ENTRY && clock.getTicks() < end;
+    }
+
+    /**
+     * @param timeoutTicks the duration of the combat, in ticks. The entries are removed when the duration given to
+     *                     {@link #addEntry} has passed, so it should not be longer than it
+     * @return whether the player was hurt less than {@code timeoutTicks} ticks ago
+     */
+    public static boolean isPlayerInCombat(UUID playerUuid, int timeoutTicks)
+    {
+        long hurtTick = lastHurtTicks.get(playerUuid, NO_ENTRY);
+        return hurtTick != NO_ENTRY && clock.getTicks() - hurtTick < timeoutTicks;
+    }
+
+    /**
+     * @param combatTimeoutSeconds the duration of the combat, in seconds (20 ticks)
+     * @see #isPlayerInCombat(UUID, int)
+     */
+    public static boolean isPlayerInCombat(UUID playerUuid, IntegerOption combatTimeoutSeconds)
+    {
+        return isPlayerInCombat(playerUuid, combatTimeoutSeconds.getInt() * 20);
+    }
+
+    /**
+     * Called by CyanLib when a player disconnects, to remove their entries (including the ones added by name with the
+     * deprecated methods)
+     */
+    public static void onPlayerDisconnected(@NotNull ServerPlayerEntity player)
+    {
+        removePlayerOnPlayerQuit(player.getUuid());
+        lastHurtTime.remove(player.getName().getString());
+    }
+
+    /**
+     * Called by CyanLib when a player disconnects, so the mods don't need to call it anymore
+     */
+    public static void removePlayerOnPlayerQuit(UUID playerUuid)
+    {
+        lastHurtTicks.remove(playerUuid);
+        removeAttacker(playerUuid);
+        if (combatEndTicks.remove(playerUuid))
+        {
+            CombatEvents.LEFT.invoker().onLeftCombat(playerUuid);
+        }
+    }
+
+    /**
+     * @deprecated the names of the players can change, use {@link #addEntry(UUID)} instead
+     */
+    @Deprecated
     public static void addEntry(String playerName, long hurtTime)
     {
         lastHurtTime.put(playerName, hurtTime);
     }
 
+    /**
+     * @deprecated the names of the players can change, use {@link #isPlayerInCombat(UUID, IntegerOption)} instead
+     */
+    @Deprecated
     public static boolean isPlayerInCombat(String playerName, IntegerOption combatTimeoutSeconds)
     {
-        if (lastHurtTime.containsKey(playerName))
-        {
-            return System.currentTimeMillis() - lastHurtTime.get(playerName)
-                    < combatTimeoutSeconds.getValue() * 1000;
-        }
-        return false;
+        Long hurtTime = lastHurtTime.get(playerName);
+        return hurtTime != null && System.currentTimeMillis() - hurtTime < combatTimeoutSeconds.getInt() * 1000L;
     }
 
+    /**
+     * @deprecated the names of the players can change, use {@link #removePlayerOnPlayerQuit(UUID)} instead
+     */
+    @Deprecated
     public static void removePlayerOnPlayerQuit(String playerName)
     {
         lastHurtTime.remove(playerName);
@@ -5,19 +5,21 @@ import fr.aeldit.cyanlib.lib.config.ICyanLibConfig;
 import net.minecraft.server.network.ServerPlayerEntity;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static fr.aeldit.cyanlib.core.CyanLibCore.CYANLIB_MODID;
 
 // TODO -> Add multi world support
 public class CyanLib
 {
+    private static final TranslationHandle NOT_OP = CyanLibLanguageUtils.getHandle(CYANLIB_MODID, "error.notOp");
+
     private final CyanLibOptionsStorage optionsStorage;
     private final CyanLibLanguageUtils languageUtils;
     // This Map stores the CyanLib instance of each mod using this library, the key in the map being the modid
-    // of the mod
-    public static final Map<String, CyanLib> CONFIG_CLASS_INSTANCES = new HashMap<>();
+    // of the mod. It is read by the config watcher thread, so it must be thread-safe
+    public static final Map<String, CyanLib> CONFIG_CLASS_INSTANCES = new ConcurrentHashMap<>();
 
     /**
      * Main class of this library
@@ -55,7 +57,7 @@ public class CyanLib
     {
         if (!player.hasPermissionLevel(permission))
         {
-            languageUtils.sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
+            languageUtils.sendPlayerMessage(player, NOT_OP);
             return false;
         }
         return true;
@@ -1,30 +1,32 @@
 package fr.aeldit.cyanlib.lib;
 
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
 import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
-import java.io.Reader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import static fr.aeldit.cyanlib.core.config.CyanLibConfigImpl.MSG_TO_ACTION_BAR;
 
 @SuppressWarnings("unused")
 public class CyanLibLanguageUtils
 {
-    // Map<modKey, Map<translationKey, translation>>
+    // Map<modKey, translations>
     // Contains for keys each mod that implements this Library using the CyanLibLanguageUtils,
     // and for values the translations of each mod
-    private static final ConcurrentHashMap<String, Map<String, String>> modsTranslations = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, ModTranslations> modsTranslations = new ConcurrentHashMap<>();
     private final String modid;
 
     @Contract(pure = true)
@@ -40,60 +42,106 @@ public class CyanLibLanguageUtils
 
         if (!Files.exists(customLangPath))
         {
-            modsTranslations.put(modid, defaultTranslations);
+            setTranslations(modid, defaultTranslations);
+            return;
+        }
+
+        TranslationTable translations;
+        try
+        {
+            translations = TranslationBundle.load(customLangPath);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+
+        if (translations.size() == 0)
+        {
+            setTranslations(modid, defaultTranslations);
+        }
+        else if (translations.containsAll(defaultTranslations.keySet()))
+        {
+            getModTranslations(modid).setTable(translations);
         }
         else
         {
-            try
+            // If there are missing translations in the provided one, we add them from the default translations
+            HashMap<String, String> merged = translations.toMap();
+            for (Map.Entry<String, String> entry : defaultTranslations.entrySet())
             {
-                Gson gsonReader = new Gson();
-                Reader reader = Files.newBufferedReader(customLangPath);
-                TypeToken<HashMap<String, String>> mapType = new TypeToken<>()
-                {
-                };
-                modsTranslations.put(modid, gsonReader.fromJson(reader, mapType));
-                reader.close();
-            }
-            catch (IOException e)
-            {
-                throw new RuntimeException(e);
+                merged.putIfAbsent(entry.getKey(), entry.getValue());
             }
+            setTranslations(modid, merged);
+        }
+    }
 
-            if (!modsTranslations.containsKey(modid) || modsTranslations.get(modid).isEmpty())
+    /**
+     * @return the language selected by the player in their client (ex: {@code "fr_fr"})
+     */
+    public static String getLanguage(@NotNull ServerPlayerEntity player)
+    {
+        return ((ICyanLibPlayer) player).cyanlib$getLanguage();
+    }
+
+    /**
+     * Replaces the translations of the mod. The new translations are built apart from the current ones and then
+     * published at once, so the messages sent during a reload use either the old or the new translations
+     */
+    static void setTranslations(String modKey, Map<String, String> translations)
+    {
+        getModTranslations(modKey).setTable(TranslationTable.of(translations));
+    }
+
+    static ModTranslations getModTranslations(String modKey)
+    {
+        ModTranslations translations = modsTranslations.get(modKey);
+        if (translations == null)
+        {
+            // Created outside of the map, as it lists the locale packs of the mod on the disk
+            ModTranslations created = new ModTranslations(modKey);
+            translations = modsTranslations.putIfAbsent(modKey, created);
+            if (translations == null)
             {
-                modsTranslations.put(modid, defaultTranslations);
-            }
-            else
-            {
-                // If there are missing translations in the provided one, we add them from the default translations
-                for (String key : defaultTranslations.keySet())
-                {
-                    if (!modsTranslations.get(modid).containsKey(key))
-                    {
-                        modsTranslations.get(modid).put(key, defaultTranslations.get(key));
-                    }
-                }
+                translations = created;
             }
         }
+        return translations;
+    }
+
+    /**
+     * Resolves the translation key once, so that the messages that are sent often don't need to look it up each time
+     *
+     * @param translationPath The translation key (ex: "error.notOp")
+     * @return the handle of the translation key, which is updated each time the translations are reloaded
+     */
+    public TranslationHandle getHandle(String translationPath)
+    {
+        return getHandle(modid, translationPath);
     }
 
-    private String getTranslation(String translationKey)
+    /**
+     * @param modKey          The modid of the mod of which we want the translation
+     * @param translationPath The translation key (ex: "error.notOp")
+     * @see #getHandle(String)
+     */
+    public static TranslationHandle getHandle(String modKey, String translationPath)
     {
-        return getTranslation(modid, translationKey);
+        return getModTranslations(modKey).getHandle(translationPath);
     }
 
-    private String getTranslation(String modKey, String translationKey)
+    static String getTranslation(String modKey, String translationKey)
     {
-        if (!modsTranslations.containsKey(modKey) || !modsTranslations.get(modKey).containsKey(translationKey))
-        {
-            return "The translation key '%s' doesn't exist for the mod %s".formatted(translationKey, modKey);
-        }
-        return modsTranslations.get(modKey).get(translationKey);
+        ModTranslations translations = getModTranslations(modKey);
+        return translations.getTranslation(translations.getTable(), translationKey);
     }
 
     /**
      * Sends a message to the player using the custom language if it is initialized, using the default translations
-     * otherwise
+     * otherwise.
+     * <p>
+     * If the mod has a locale pack for the language of the player ({@code config/<modid>/lang/<language>.json}, in the
+     * same format as {@code custom_lang.json}), its translations are used first
      *
      * @param player          The player to whom the message will be sent
      * @param modKey          The modid of the mod of which we want the translation
@@ -105,8 +153,8 @@ public class CyanLibLanguageUtils
     )
     {
         player.sendMessage(
-                Text.translatable(getTranslation(modKey, translationPath), args),
-                MSG_TO_ACTION_BAR.getValue()
+                getHandle(modKey, translationPath).getLocalizedText(getLanguage(player), args),
+                MSG_TO_ACTION_BAR.getBoolean()
         );
     }
 
@@ -115,7 +163,9 @@ public class CyanLibLanguageUtils
      */
     public void sendPlayerMessage(@NotNull ServerPlayerEntity player, String translationPath, Object... args)
     {
-        player.sendMessage(Text.translatable(getTranslation(translationPath), args), MSG_TO_ACTION_BAR.getValue());
+        player.sendMessage(
+                getHandle(translationPath).getLocalizedText(getLanguage(player), args), MSG_TO_ACTION_BAR.getBoolean()
+        );
     }
 
     /**
@@ -137,7 +187,9 @@ public class CyanLibLanguageUtils
             Object... args
     )
     {
-        player.sendMessage(Text.translatable(getTranslation(modKey, translationPath), args), toActionBar);
+        player.sendMessage(
+                getHandle(modKey, translationPath).getLocalizedText(getLanguage(player), args), toActionBar
+        );
     }
 
     /**
@@ -147,6 +199,139 @@ public class CyanLibLanguageUtils
             @NotNull ServerPlayerEntity player, String translationPath, boolean toActionBar, Object... args
     )
     {
-        player.sendMessage(Text.translatable(getTranslation(translationPath), args), toActionBar);
+        player.sendMessage(getHandle(translationPath).getLocalizedText(getLanguage(player), args), toActionBar);
+    }
+
+    /**
+     * Sends a message to the player, using a translation resolved beforehand
+     *
+     * @param player      The player to whom the message will be sent
+     * @param translation The handle of the translation, obtained with {@link #getHandle(String)}
+     * @param args        The arguments to pass to the message (can be omitted). (You can put more than 1 arg)
+     * @see #sendPlayerMessageMod(ServerPlayerEntity, String, String, Object...)
+     */
+    public void sendPlayerMessage(
+            @NotNull ServerPlayerEntity player, @NotNull TranslationHandle translation, Object... args
+    )
+    {
+        player.sendMessage(translation.getLocalizedText(getLanguage(player), args), MSG_TO_ACTION_BAR.getBoolean());
+    }
+
+    /**
+     * @see #sendPlayerMessage(ServerPlayerEntity, TranslationHandle, Object...)
+     * @see #sendPlayerMessageActionBarMod(ServerPlayerEntity, String, String, boolean, Object...)
+     */
+    public void sendPlayerMessageActionBar(
+            @NotNull ServerPlayerEntity player, @NotNull TranslationHandle translation, boolean toActionBar,
+            Object... args
+    )
+    {
+        player.sendMessage(translation.getLocalizedText(getLanguage(player), args), toActionBar);
+    }
+
+    /**
+     * Sends the same message to each player of the collection. The translation is resolved and the text is built only
+     * once per language, and the same text is sent to every player using this language. Only the text is shared: the
+     * packet is still built for each player by {@link ServerPlayerEntity#sendMessage}, which, like
+     * {@link #sendPlayerMessage}, doesn't send the message to the players who hid it in their chat settings
+     *
+     * @param players     The players to whom the message will be sent
+     * @param translation The handle of the translation, obtained with {@link #getHandle(String)}
+     * @param args        The arguments to pass to the message (can be omitted). (You can put more than 1 arg)
+     */
+    public void broadcastMessage(
+            @NotNull Collection<ServerPlayerEntity> players, @NotNull TranslationHandle translation, Object... args
+    )
+    {
+        broadcast(players, translation, MSG_TO_ACTION_BAR.getBoolean(), args);
+    }
+
+    /**
+     * @see #broadcastMessage(Collection, TranslationHandle, Object...)
+     */
+    public void broadcastMessage(
+            @NotNull Collection<ServerPlayerEntity> players, String translationPath, Object... args
+    )
+    {
+        broadcastMessage(players, getHandle(translationPath), args);
+    }
+
+    /**
+     * @param modKey The modid of the mod of which we want the translation
+     * @see #broadcastMessage(Collection, TranslationHandle, Object...)
+     */
+    public void broadcastMessageMod(
+            @NotNull Collection<ServerPlayerEntity> players, String modKey, String translationPath, Object... args
+    )
+    {
+        broadcastMessage(players, getHandle(modKey, translationPath), args);
+    }
+
+    /**
+     * Sends the same message to each connected player for which the filter returns {@code true}
+     *
+     * @param server The server
+     * @param filter The filter selecting the players to whom the message will be sent
+     * @see #broadcastMessage(Collection, TranslationHandle, Object...)
+     */
+    public void broadcastMessage(
+            @NotNull MinecraftServer server, @NotNull Predicate<ServerPlayerEntity> filter,
+            @NotNull TranslationHandle translation, Object... args
+    )
+    {
+        boolean toActionBar = MSG_TO_ACTION_BAR.getBoolean();
+        forEachLanguage(
+                server.getPlayerManager().getPlayerList(), filter, CyanLibLanguageUtils::getLanguage, translation, args,
+                (player, text) -> player.sendMessage(text, toActionBar)
+        );
+    }
+
+    /**
+     * Same as {@link #broadcastMessage(Collection, TranslationHandle, Object...)}, but forces the message to be or not
+     * in the action bar, independently of the {@code MSG_TO_ACTION_BAR} option
+     */
+    public void broadcastMessageActionBar(
+            @NotNull Collection<ServerPlayerEntity> players, @NotNull TranslationHandle translation,
+            boolean toActionBar, Object... args
+    )
+    {
+        broadcast(players, translation, toActionBar, args);
+    }
+
+    private static void broadcast(
+            @NotNull Collection<ServerPlayerEntity> players, @NotNull TranslationHandle translation,
+            boolean toActionBar, Object[] args
+    )
+    {
+        forEachLanguage(
+                players, player -> true, CyanLibLanguageUtils::getLanguage, translation, args,
+                (player, text) -> player.sendMessage(text, toActionBar)
+        );
+    }
+
+    /**
+     * Gives the text of the message to the sender for each recipient accepted by the filter. The text is built the
+     * first time a language is needed, and then shared by all the recipients using this language
+     */
+    static <P> void forEachLanguage(
+            @NotNull Iterable<P> recipients, @NotNull Predicate<P> filter, @NotNull Function<P, String> languages,
+            @NotNull TranslationHandle translation, Object[] args, @NotNull BiConsumer<P, Text> sender
+    )
+    {
+        HashMap<String, Text> texts = new HashMap<>(4);
+        for (P recipient : recipients)
+        {
+            if (filter.test(recipient))
+            {
+                String language = languages.apply(recipient);
+                Text text = texts.get(language);
+                if (text == null)
+                {
+                    text = translation.getLocalizedText(language, args);
+                    texts.put(language, text);
+                }
+                sender.accept(recipient, text);
+            }
+        }
     }
 }
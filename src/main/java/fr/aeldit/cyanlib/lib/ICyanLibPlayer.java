@@ -0,0 +1,13 @@
+package fr.aeldit.cyanlib.lib;
+
+/**
+ * Implemented by {@link net.minecraft.server.network.ServerPlayerEntity} through a mixin, to access data that is not
+ * exposed in the same way by every Minecraft version
+ */
+public interface ICyanLibPlayer
+{
+    /**
+     * @return the language selected by the player in their client (ex: {@code "fr_fr"})
+     */
+    String cyanlib$getLanguage();
+}
@@ -0,0 +1,213 @@
+package fr.aeldit.cyanlib.lib;
+
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A translation parsed once into a list of segments (literal parts and arguments), following the same rules as
+ * {@code Text.translatable}: {@code %s} is the next argument, {@code %n$s} the n-th argument and {@code %%} a
+ * {@code %}.
+ * <p>
+ * The texts are sent as {@code Text.translatable(translation, args)}, so that the clients having the lang file of the
+ * mod can still translate them. They are cached when there are no arguments, and when the arguments are all immutable
+ * (strings, numbers, booleans and characters), in a small LRU cache. Each call returns a copy of the cached text, so
+ * the callers can modify it without affecting the others
+ */
+final class MessageTemplate
+{
+    private static final int MAX_CACHED_ARGS = 16;
+
+    private final String template;
+    // Each element is either a String (a literal part) or an Integer (the index of an argument).
+    // Null if the template is invalid, in which case it is sent as is, like Text.translatable does
+    private final Object[] segments;
+    private final int argsCount;
+    private volatile Text noArgsText;
+    private final Map<List<Object>, Text> argsTexts = Collections.synchronizedMap(
+            new LinkedHashMap<>(MAX_CACHED_ARGS, 0.75f, true)
+            {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<List<Object>, Text> eldest)
+                {
+                    return size() > MAX_CACHED_ARGS;
+                }
+            }
+    );
+
+    MessageTemplate(@NotNull String template)
+    {
+        this.template = template;
+        this.segments = parse(template);
+
+        int argsCount = 0;
+        if (segments != null)
+        {
+            for (Object segment : segments)
+            {
+                if (segment instanceof Integer index)
+                {
+                    argsCount = Math.max(argsCount, index + 1);
+                }
+            }
+        }
+        this.argsCount = argsCount;
+    }
+
+    private static Object[] parse(@NotNull String template)
+    {
+        ArrayList<Object> segments = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int nextArg = 0;
+
+        for (int i = 0; i < template.length(); i++)
+        {
+            char c = template.charAt(i);
+            if (c != '%')
+            {
+                literal.append(c);
+                continue;
+            }
+
+            int j = i + 1;
+            while (j < template.length() && Character.isDigit(template.charAt(j)))
+            {
+                j++;
+            }
+            Integer position = null;
+            if (j > i + 1)
+            {
+                if (j >= template.length() || template.charAt(j) != '$')
+                {
+                    return null;
+                }
+                position = Integer.parseInt(template.substring(i + 1, j)) - 1;
+                if (position < 0)
+                {
+                    return null;
+                }
+                j++;
+            }
+
+            if (j >= template.length())
+            {
+                return null;
+            }
+            char conversion = template.charAt(j);
+            if (conversion == '%' && position == null)
+            {
+                literal.append('%');
+            }
+            else if (conversion == 's')
+            {
+                if (!literal.isEmpty())
+                {
+                    segments.add(literal.toString());
+                    literal.setLength(0);
+                }
+                segments.add(position == null ? nextArg++ : position);
+            }
+            else
+            {
+                return null;
+            }
+            i = j;
+        }
+
+        if (!literal.isEmpty())
+        {
+            segments.add(literal.toString());
+        }
+        return segments.toArray();
+    }
+
+    String getTemplate()
+    {
+        return template;
+    }
+
+    /**
+     * @return a new text of this template with the given arguments
+     */
+    @NotNull MutableText toText(Object... args)
+    {
+        if (args.length == 0)
+        {
+            Text text = noArgsText;
+            if (text == null)
+            {
+                text = Text.translatable(template);
+                noArgsText = text;
+            }
+            return text.copy();
+        }
+
+        if (!isImmutable(args))
+        {
+            return Text.translatable(template, args);
+        }
+        List<Object> key = List.of(args);
+        Text text = argsTexts.get(key);
+        if (text == null)
+        {
+            // The key is a copy of the arguments, so the caller can't modify the cached ones
+            text = Text.translatable(template, key.toArray());
+            argsTexts.put(key, text);
+        }
+        return text.copy();
+    }
+
+    /**
+     * @return the template with the given arguments, as a string
+     */
+    @NotNull String format(Object... args)
+    {
+        if (!isValid(args))
+        {
+            return template;
+        }
+
+        StringBuilder sb = new StringBuilder(template.length() + 16 * args.length);
+        for (Object segment : segments)
+        {
+            if (segment instanceof String literal)
+            {
+                sb.append(literal);
+            }
+            else
+            {
+                Object arg = args[(Integer) segment];
+                sb.append(arg instanceof Text text ? text.getString() : String.valueOf(arg));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Like {@code Text.translatable}, the template is used as is if it is invalid or if an argument is missing
+     */
+    private boolean isValid(Object @NotNull [] args)
+    {
+        return segments != null && args.length >= argsCount;
+    }
+
+    private static boolean isImmutable(Object @NotNull [] args)
+    {
+        for (Object arg : args)
+        {
+            if (!(arg instanceof String || arg instanceof Integer || arg instanceof Long || arg instanceof Boolean
+                  || arg instanceof Character || arg instanceof Short || arg instanceof Byte || arg instanceof Double
+                  || arg instanceof Float))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,226 @@
+package fr.aeldit.cyanlib.lib;
+
+import com.google.gson.JsonParseException;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import static fr.aeldit.cyanlib.core.CyanLibCore.CYANLIB_MODID;
+
+/**
+ * Holds the current translations of a mod, and the handles obtained for them.
+ * <p>
+ * The translations are never modified: a reload builds a new {@link TranslationTable} and publishes it with a single
+ * volatile write, so the readers never need to lock, and always see either the old or the new translations, never a
+ * mix of them. The handles compare the table they were resolved from with the current one to detect reloads.
+ * <p>
+ * The locale packs ({@code config/<modid>/lang/<language>.json}) are listed when the translations are loaded or
+ * reloaded, and each pack is loaded the first time a player using its language receives a message. Only the most
+ * recently used packs are kept in memory, the languages without a pack never using a place in the cache
+ */
+final class ModTranslations
+{
+    /**
+     * A locale pack, or the absence of a pack for a language if {@code table} is {@code null}.
+     * <p>
+     * The templates parsed from the translations of the pack are kept in it, so that they leave the memory with the
+     * pack when it is pushed out of the cache or reloaded
+     */
+    static final class LocalePack
+    {
+        private final @Nullable TranslationTable table;
+        private final Map<String, MessageTemplate> templates = new ConcurrentHashMap<>();
+
+        LocalePack(@Nullable TranslationTable table)
+        {
+            this.table = table;
+        }
+
+        @Nullable TranslationTable table()
+        {
+            return table;
+        }
+
+        /**
+         * @return the template of the translation in this pack, or {@code null} if the pack doesn't contain it
+         */
+        @Nullable MessageTemplate getTemplate(@NotNull String translationKey)
+        {
+            MessageTemplate template = templates.get(translationKey);
+            if (template == null && table != null)
+            {
+                String translation = table.get(translationKey);
+                if (translation == null)
+                {
+                    return null;
+                }
+                // Threads racing here parse the same translation, so any of them can win
+                template = new MessageTemplate(translation);
+                templates.put(translationKey, template);
+            }
+            return template;
+        }
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CYANLIB_MODID);
+    private static final int MAX_LOCALE_PACKS = 8;
+    // Only the files named after a valid language code are listed
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("[a-z0-9_]{1,16}");
+    private static final LocalePack NO_PACK = new LocalePack(null);
+
+    private final String modid;
+    private volatile TranslationTable table = TranslationTable.of(Map.of());
+    // The languages that have a locale pack in the config directory
+    private volatile Set<String> packLanguages;
+    private final Map<String, TranslationHandle> handles = new ConcurrentHashMap<>();
+    private final LinkedHashMap<String, LocalePack> localePacks = new LinkedHashMap<>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, LocalePack> eldest)
+        {
+            return size() > MAX_LOCALE_PACKS;
+        }
+    };
+
+    ModTranslations(String modid)
+    {
+        this.modid         = modid;
+        this.packLanguages = listLocalePacks();
+    }
+
+    @NotNull TranslationTable getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Publishes the new translations, and unloads the locale packs so that they are listed again, and read again when
+     * they are needed
+     */
+    void setTable(@NotNull TranslationTable table)
+    {
+        Set<String> languages = listLocalePacks();
+        synchronized (localePacks)
+        {
+            localePacks.clear();
+            packLanguages = languages;
+        }
+        this.table = table;
+    }
+
+    private @NotNull Path getLocalePacksDir()
+    {
+        return FabricLoader.getInstance().getConfigDir().resolve(modid).resolve("lang");
+    }
+
+    /**
+     * @return the languages that have a locale pack
+     */
+    private @NotNull Set<String> listLocalePacks()
+    {
+        Path dir = getLocalePacksDir();
+        if (!Files.isDirectory(dir))
+        {
+            return Set.of();
+        }
+
+        HashSet<String> languages = new HashSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json"))
+        {
+            for (Path file : files)
+            {
+                String fileName = file.getFileName().toString();
+                String language = fileName.substring(0, fileName.length() - ".json".length());
+                // The language is sent by the client, so it must not be able to point to another file
+                if (LANGUAGE_CODE.matcher(language).matches())
+                {
+                    languages.add(language);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn("[CyanLib] Could not list the locale packs in {}", dir, e);
+        }
+        return Set.copyOf(languages);
+    }
+
+    @NotNull String getTranslation(@NotNull TranslationTable table, String translationKey)
+    {
+        String translation = table.get(translationKey);
+        if (translation == null)
+        {
+            return "The translation key '%s' doesn't exist for the mod %s".formatted(translationKey, modid);
+        }
+        return translation;
+    }
+
+    @NotNull TranslationHandle getHandle(String translationKey)
+    {
+        return handles.computeIfAbsent(translationKey, key -> new TranslationHandle(this, modid, key));
+    }
+
+    /**
+     * Returns the locale pack of the language, loading it if it is not in the cache
+     */
+    @NotNull LocalePack getLocalePack(@NotNull String language)
+    {
+        // Most players use a language without a pack, so they must not push the loaded packs out of the cache
+        if (!packLanguages.contains(language))
+        {
+            return NO_PACK;
+        }
+
+        synchronized (localePacks)
+        {
+            LocalePack pack = localePacks.get(language);
+            if (pack != null)
+            {
+                return pack;
+            }
+        }
+
+        // The file is read outside the lock, so that the messages of the other languages are not blocked by it
+        TranslationTable packTable = readLocalePack(language);
+        synchronized (localePacks)
+        {
+            return localePacks.computeIfAbsent(
+                    language, k -> packTable == null ? NO_PACK : new LocalePack(packTable)
+            );
+        }
+    }
+
+    private @Nullable TranslationTable readLocalePack(@NotNull String language)
+    {
+        Path path = getLocalePacksDir().resolve("%s.json".formatted(language));
+        if (!Files.exists(path))
+        {
+            return null;
+        }
+
+        try
+        {
+            TranslationTable packTable = TranslationBundle.load(path);
+            return packTable.size() == 0 ? null : packTable;
+        }
+        catch (IOException | JsonParseException e)
+        {
+            // The message will be sent with the default translations instead
+            LOGGER.warn("[CyanLib] Could not read the locale pack {}", path, e);
+            return null;
+        }
+    }
+}
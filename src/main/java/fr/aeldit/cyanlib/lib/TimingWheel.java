@@ -0,0 +1,163 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel, which expires UUIDs at a given tick.
+ * <p>
+ * Each UUID is placed in the slot {@code deadline % SLOTS}, in a linked list, and each call to {@link #advance} only
+ * looks at the slots of the ticks that passed since the previous call, so expiring the entries costs the same whatever
+ * the number of entries is. The entries whose deadline is more than {@code SLOTS} ticks away stay in their slot until
+ * the wheel has turned enough times.
+ * <p>
+ * When an entry expires, the {@link Expiry} decides if it is removed or moved to a later deadline, so that entries
+ * whose deadline is pushed back often don't need to be rescheduled each time
+ */
+final class TimingWheel
+{
+    private static final int SLOTS = 512;
+
+    static final long REMOVE = Long.MIN_VALUE;
+    static final long DISCARD = Long.MIN_VALUE + 1;
+
+    @FunctionalInterface
+    interface Expiry
+    {
+        /**
+         * @return the new deadline of the UUID if it must stay in the wheel, {@link #REMOVE} to remove it and give it to
+         * the {@code onRemoved} callback of {@link #advance}, or {@link #DISCARD} to only remove it
+         */
+        long onDeadline(UUID uuid, long deadline);
+    }
+
+    private static final class Entry
+    {
+        private final UUID uuid;
+        private long deadline;
+        private Entry next;
+
+        private Entry(UUID uuid, long deadline)
+        {
+            this.uuid     = uuid;
+            this.deadline = deadline;
+        }
+    }
+
+    private final Entry[] slots = new Entry[SLOTS];
+    private final Expiry expiry;
+    // Reused at each tick, only accessed by the thread calling advance
+    private final ArrayList<UUID> expired = new ArrayList<>();
+    private long currentTick;
+    private boolean started;
+    private int size;
+
+    TimingWheel(@NotNull Expiry expiry)
+    {
+        this.expiry = expiry;
+    }
+
+    synchronized void schedule(@NotNull UUID uuid, long deadline)
+    {
+        insert(new Entry(uuid, deadline));
+        size++;
+    }
+
+    private void insert(@NotNull Entry entry)
+    {
+        int slot = (int) (entry.deadline & (SLOTS - 1));
+        entry.next  = slots[slot];
+        slots[slot] = entry;
+    }
+
+    /**
+     * Expires the entries whose deadline is before or at {@code now}. The removed UUIDs are then given to
+     * {@code onRemoved}, outside the lock of the wheel
+     */
+    void advance(long now, @NotNull Consumer<UUID> onRemoved)
+    {
+        synchronized (this)
+        {
+            // The clock can only go back if it was replaced
+            if (!started || now < currentTick)
+            {
+                started     = true;
+                currentTick = now - 1;
+            }
+
+            long ticks = Math.min(now - currentTick, SLOTS);
+            for (long tick = now - ticks + 1; tick <= now; tick++)
+            {
+                expireSlot((int) (tick & (SLOTS - 1)), now);
+            }
+            currentTick = Math.max(currentTick, now);
+        }
+
+        for (UUID uuid : expired)
+        {
+            onRemoved.accept(uuid);
+        }
+        expired.clear();
+    }
+
+    private void expireSlot(int slot, long now)
+    {
+        Entry previous = null;
+        Entry rescheduled = null;
+        Entry entry = slots[slot];
+        while (entry != null)
+        {
+            Entry next = entry.next;
+            if (entry.deadline <= now)
+            {
+                // Unlinks the entry
+                if (previous == null)
+                {
+                    slots[slot] = next;
+                }
+                else
+                {
+                    previous.next = next;
+                }
+
+                long deadline = expiry.onDeadline(entry.uuid, entry.deadline);
+                if (deadline == REMOVE || deadline == DISCARD)
+                {
+                    if (deadline == REMOVE)
+                    {
+                        expired.add(entry.uuid);
+                    }
+                    size--;
+                }
+                else
+                {
+                    // The deadline can't be in a slot that was already expired during this tick
+                    entry.deadline = Math.max(deadline, now + 1);
+                    // Inserted after the loop, because it could go back into this slot
+                    entry.next  = rescheduled;
+                    rescheduled = entry;
+                }
+            }
+            else
+            {
+                previous = entry;
+            }
+            entry = next;
+        }
+
+        while (rescheduled != null)
+        {
+            Entry next = rescheduled.next;
+            insert(rescheduled);
+            rescheduled = next;
+        }
+    }
+
+    synchronized int size()
+    {
+        return size;
+    }
+}
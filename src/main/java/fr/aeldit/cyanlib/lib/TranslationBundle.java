@@ -0,0 +1,270 @@
+package fr.aeldit.cyanlib.lib;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import fr.aeldit.cyanlib.lib.config.AtomicConfigFiles;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static fr.aeldit.cyanlib.core.CyanLibCore.CYANLIB_MODID;
+
+/**
+ * A binary copy of a translations file ({@code custom_lang.json} or a locale pack), written to the cache directory of
+ * CyanLib ({@code .cache/cyanlib/translations} in the game directory, so that it doesn't appear among the files
+ * edited by the users) the first time it is loaded, so that the next boots read it without parsing the JSON.
+ * <p>
+ * The bundle contains, in this order (big-endian):
+ * <ul>
+ *     <li>the header: {@link #MAGIC}, {@link #VERSION}, the last modified time, the size and the CRC32C of the JSON
+ *     file, the number of translations, the length of the string table and the CRC32C of the rest of the bundle</li>
+ *     <li>the offsets of the strings in the string table (each key is followed by its value, and the last offset is
+ *     the end of the table)</li>
+ *     <li>the string table, containing the UTF-8 bytes of the keys and values, in the order of the
+ *     {@link TranslationTable}, so that it doesn't need to be sorted again</li>
+ * </ul>
+ * The bundle is used as is while the last modified time and the size of the JSON file don't change. Otherwise, the
+ * JSON is hashed, and it is only parsed again if its hash changed
+ */
+final class TranslationBundle
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(CYANLIB_MODID);
+    static final int MAGIC = 0x43594C54; // "CYLT"
+    static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4 + 4;
+
+    /**
+     * The header and the body of a valid bundle. The body is only decoded by {@link #table()}
+     */
+    record Bundle(long lastModified, long jsonSize, int jsonHash, int count, int stringsLength, ByteBuffer body)
+    {
+        @Nullable TranslationTable table()
+        {
+            int stringsStart = body.position() + 4 * (2 * count + 1);
+            String[] keys = new String[count];
+            String[] values = new String[count];
+            int start = body.getInt(body.position());
+            for (int i = 0; i < 2 * count; i++)
+            {
+                int end = body.getInt(body.position() + 4 * (i + 1));
+                if (start < 0 || end < start || end > stringsLength)
+                {
+                    return null;
+                }
+                // The strings are decoded directly from the buffer, without copying their bytes
+                String string = new String(
+                        body.array(), body.arrayOffset() + stringsStart + start, end - start, StandardCharsets.UTF_8
+                );
+                if (i % 2 == 0)
+                {
+                    keys[i / 2] = string;
+                }
+                else
+                {
+                    values[i / 2] = string;
+                }
+                start = end;
+            }
+
+            try
+            {
+                return TranslationTable.ofSorted(keys, values);
+            }
+            catch (IllegalArgumentException e)
+            {
+                return null;
+            }
+        }
+    }
+
+    private TranslationBundle()
+    {
+    }
+
+    static @NotNull Path cacheDir()
+    {
+        return FabricLoader.getInstance().getGameDir().resolve(Path.of(".cache", CYANLIB_MODID, "translations"));
+    }
+
+    /**
+     * @return the path of the bundle of the given JSON file, in the cache directory. The files of the config
+     * directory keep their relative path, and the other ones are put in a directory named after their parent
+     */
+    static @NotNull Path bundlePath(@NotNull Path jsonPath)
+    {
+        Path configDir = FabricLoader.getInstance().getConfigDir().toAbsolutePath().normalize();
+        Path absolute = jsonPath.toAbsolutePath().normalize();
+        Path relative = absolute.startsWith(configDir)
+                        ? configDir.relativize(absolute)
+                        : Path.of(Integer.toHexString(absolute.getParent().hashCode())).resolve(absolute.getFileName());
+        return cacheDir().resolve(relative).resolveSibling("%s.bin".formatted(relative.getFileName()));
+    }
+
+    /**
+     * Loads the translations of the JSON file, from its bundle if it is up-to-date, and from the JSON otherwise (in
+     * which case the bundle is written again)
+     *
+     * @return the translations, which are empty if the file is empty
+     */
+    static @NotNull TranslationTable load(@NotNull Path jsonPath) throws IOException
+    {
+        BasicFileAttributes attributes = Files.readAttributes(jsonPath, BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        Path bundlePath = bundlePath(jsonPath);
+        Bundle bundle = Files.exists(bundlePath) ? read(bundlePath) : null;
+
+        // The JSON is only read when it may have been modified
+        if (bundle != null && bundle.lastModified() == lastModified && bundle.jsonSize() == attributes.size())
+        {
+            TranslationTable table = bundle.table();
+            if (table != null)
+            {
+                return table;
+            }
+        }
+
+        byte[] json = Files.readAllBytes(jsonPath);
+        int hash = checksum(ByteBuffer.wrap(json));
+        // The file was only touched, so the bundle is still valid
+        TranslationTable table = bundle != null && bundle.jsonHash() == hash ? bundle.table() : null;
+        if (table == null)
+        {
+            Map<String, String> translations;
+            try (Reader reader = new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8))
+            {
+                TypeToken<HashMap<String, String>> mapType = new TypeToken<>()
+                {
+                };
+                translations = new Gson().fromJson(reader, mapType);
+            }
+            table = TranslationTable.of(translations == null ? Map.of() : translations);
+        }
+
+        try
+        {
+            write(bundlePath, table, lastModified, json.length, hash);
+        }
+        catch (IOException e)
+        {
+            // The bundle is only a cache, the translations will be read from the JSON again on the next boot
+            LOGGER.warn("[CyanLib] Could not write the translations bundle {}", bundlePath, e);
+        }
+        return table;
+    }
+
+    /**
+     * Reads the bundle into the heap (it is not memory-mapped, so that the file can be replaced right after, even on
+     * Windows)
+     *
+     * @return the bundle, or {@code null} if it is invalid
+     */
+    static @Nullable Bundle read(@NotNull Path bundlePath) throws IOException
+    {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(bundlePath, StandardOpenOption.READ))
+        {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+            {
+                return null;
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer) < 0)
+                {
+                    return null;
+                }
+            }
+            buffer.flip();
+        }
+
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+        {
+            return null;
+        }
+        long lastModified = buffer.getLong();
+        long jsonSize = buffer.getLong();
+        int jsonHash = buffer.getInt();
+        int count = buffer.getInt();
+        int stringsLength = buffer.getInt();
+        int bodyChecksum = buffer.getInt();
+        if (count < 0 || stringsLength < 0
+            || (long) HEADER_SIZE + 4L * (2L * count + 1) + stringsLength != buffer.capacity()
+            || checksum(buffer.duplicate()) != bodyChecksum)
+        {
+            return null;
+        }
+        return new Bundle(lastModified, jsonSize, jsonHash, count, stringsLength, buffer);
+    }
+
+    static void write(
+            @NotNull Path bundlePath, @NotNull TranslationTable table, long lastModified, long jsonSize, int hash
+    ) throws IOException
+    {
+        int count = table.size();
+        byte[][] strings = new byte[2 * count][];
+        int stringsLength = 0;
+        for (int i = 0; i < count; i++)
+        {
+            strings[2 * i]     = table.keyAt(i).getBytes(StandardCharsets.UTF_8);
+            strings[2 * i + 1] = table.valueAt(i).getBytes(StandardCharsets.UTF_8);
+            stringsLength += strings[2 * i].length + strings[2 * i + 1].length;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(4 * (2 * count + 1) + stringsLength);
+        int offset = 0;
+        body.putInt(offset);
+        for (byte[] string : strings)
+        {
+            offset += string.length;
+            body.putInt(offset);
+        }
+        for (byte[] string : strings)
+        {
+            body.put(string);
+        }
+        body.flip();
+
+        int bodyChecksum = checksum(body.duplicate());
+        int finalStringsLength = stringsLength;
+        AtomicConfigFiles.write(bundlePath, out -> {
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+            data.writeLong(lastModified);
+            data.writeLong(jsonSize);
+            data.writeInt(hash);
+            data.writeInt(count);
+            data.writeInt(finalStringsLength);
+            data.writeInt(bodyChecksum);
+            data.write(body.array(), 0, body.limit());
+            data.flush();
+        });
+    }
+
+    private static int checksum(@NotNull ByteBuffer buffer)
+    {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+}
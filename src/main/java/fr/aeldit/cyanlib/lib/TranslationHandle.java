@@ -0,0 +1,98 @@
+package fr.aeldit.cyanlib.lib;
+
+import net.minecraft.text.MutableText;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A translation key of a mod, resolved once to its translation.
+ * <p>
+ * Handles are obtained with {@link CyanLibLanguageUtils#getHandle(String)}, and are updated when the translations of
+ * the mod are reloaded, so they can be stored in static fields and used for the messages that are sent often, without
+ * looking the translation up each time
+ */
+public final class TranslationHandle
+{
+    private record Resolved(TranslationTable table, MessageTemplate template)
+    {
+    }
+
+    private final ModTranslations translations;
+    private final String modid;
+    private final String translationKey;
+    private volatile Resolved resolved;
+
+    TranslationHandle(ModTranslations translations, String modid, String translationKey)
+    {
+        this.translations   = translations;
+        this.modid          = modid;
+        this.translationKey = translationKey;
+        this.resolved       = resolve(translations.getTable(), null);
+    }
+
+    public String getModid()
+    {
+        return modid;
+    }
+
+    public String getTranslationKey()
+    {
+        return translationKey;
+    }
+
+    /**
+     * @return the current translation, or an error message if the key doesn't exist for the mod
+     */
+    public @NotNull String getTranslation()
+    {
+        return getTemplate().getTemplate();
+    }
+
+    /**
+     * Returns the text of the translation with the given arguments.
+     * <p>
+     * The translation is parsed once, and the text is cached when there are no arguments or when the arguments are
+     * all strings, numbers, booleans or characters. A copy of it is returned, which the caller can modify
+     */
+    public @NotNull MutableText getText(Object... args)
+    {
+        return getTemplate().toText(args);
+    }
+
+    /**
+     * Same as {@link #getText(Object...)}, but uses the locale pack of the given language if the mod has one and if
+     * it contains this translation
+     *
+     * @param language the language code (ex: {@code "fr_fr"})
+     */
+    public @NotNull MutableText getLocalizedText(@NotNull String language, Object... args)
+    {
+        // The templates of the pack are kept by the pack, so they are dropped when it leaves the cache
+        MessageTemplate template = translations.getLocalePack(language).getTemplate(translationKey);
+        return template == null ? getText(args) : template.toText(args);
+    }
+
+    private MessageTemplate getTemplate()
+    {
+        Resolved current = resolved;
+        TranslationTable table = translations.getTable();
+        if (current.table() != table)
+        {
+            // The translations were reloaded. Threads racing here resolve the same translation, so any of them can win
+            current  = resolve(table, current.template());
+            resolved = current;
+        }
+        return current.template();
+    }
+
+    private Resolved resolve(TranslationTable table, @Nullable MessageTemplate previous)
+    {
+        String translation = translations.getTranslation(table, translationKey);
+        if (previous != null && previous.getTemplate().equals(translation))
+        {
+            // Keeps the cached texts
+            return new Resolved(table, previous);
+        }
+        return new Resolved(table, new MessageTemplate(translation));
+    }
+}
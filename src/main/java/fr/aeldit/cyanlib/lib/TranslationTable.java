@@ -0,0 +1,194 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The translations of a mod, frozen into parallel arrays sorted by the hash of the keys, then by the keys.
+ * <p>
+ * Compared to a {@link java.util.HashMap}, there are no entry objects and no table to keep partially empty. The keys
+ * are split after their last dot: the prefixes (like {@code msg.getCfg.}) are stored once per table, and the rest of
+ * the keys are stored one after the other in a single string, so the keys don't need a {@link String} each. The
+ * identical translations are also stored once. A lookup is a binary search on the hashes, which are compared as
+ * primitives, followed by a comparison of the key with the prefix and the rest of the stored key
+ */
+final class TranslationTable
+{
+    private final int[] hashes;
+    private final String[] prefixes;
+    // The index of the prefix of each key in prefixes
+    private final int[] keyPrefixes;
+    // The rest of each key, stored in suffixes, ends at keyEnds[i] and starts at the end of the previous one
+    private final String suffixes;
+    private final int[] keyEnds;
+    private final String[] values;
+
+    private TranslationTable(@NotNull String[] keys, @NotNull String[] values)
+    {
+        int size = keys.length;
+        this.hashes      = new int[size];
+        this.keyPrefixes = new int[size];
+        this.keyEnds     = new int[size];
+        this.values      = new String[size];
+
+        ArrayList<String> prefixes = new ArrayList<>();
+        HashMap<String, Integer> prefixIndexes = new HashMap<>();
+        HashMap<String, String> distinctValues = new HashMap<>();
+        StringBuilder suffixes = new StringBuilder();
+        for (int i = 0; i < size; i++)
+        {
+            String key = keys[i];
+            int split = key.lastIndexOf('.') + 1;
+            String prefix = key.substring(0, split);
+            Integer prefixIndex = prefixIndexes.get(prefix);
+            if (prefixIndex == null)
+            {
+                prefixIndex = prefixes.size();
+                prefixes.add(prefix);
+                prefixIndexes.put(prefix, prefixIndex);
+            }
+
+            hashes[i]      = key.hashCode();
+            keyPrefixes[i] = prefixIndex;
+            suffixes.append(key, split, key.length());
+            keyEnds[i]     = suffixes.length();
+            this.values[i] = distinctValues.computeIfAbsent(values[i], value -> value);
+        }
+        this.prefixes = prefixes.toArray(new String[0]);
+        this.suffixes = suffixes.toString();
+    }
+
+    static @NotNull TranslationTable of(@NotNull Map<String, String> translations)
+    {
+        ArrayList<Map.Entry<String, String>> entries = new ArrayList<>(translations.size());
+        for (Map.Entry<String, String> entry : translations.entrySet())
+        {
+            // Gson reads the null JSON values as null
+            if (entry.getKey() != null && entry.getValue() != null)
+            {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingInt((Map.Entry<String, String> entry) -> entry.getKey().hashCode())
+                               .thenComparing(Map.Entry::getKey));
+
+        int size = entries.size();
+        String[] keys = new String[size];
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++)
+        {
+            keys[i]   = entries.get(i).getKey();
+            values[i] = entries.get(i).getValue();
+        }
+        return new TranslationTable(keys, values);
+    }
+
+    /**
+     * Creates a table from arrays that are already sorted, like the ones of a {@link TranslationBundle}
+     */
+    static @NotNull TranslationTable ofSorted(@NotNull String[] keys, @NotNull String[] values)
+    {
+        for (int i = 1; i < keys.length; i++)
+        {
+            if (compare(keys[i - 1].hashCode(), keys[i - 1], keys[i].hashCode(), keys[i]) >= 0)
+            {
+                throw new IllegalArgumentException("The keys are not sorted");
+            }
+        }
+        return new TranslationTable(keys, values);
+    }
+
+    private static int compare(int hash1, @NotNull String key1, int hash2, @NotNull String key2)
+    {
+        int result = Integer.compare(hash1, hash2);
+        return result != 0 ? result : key1.compareTo(key2);
+    }
+
+    /**
+     * @return a new mutable map containing the translations of this table
+     */
+    @NotNull HashMap<String, String> toMap()
+    {
+        HashMap<String, String> map = new HashMap<>(values.length * 2);
+        for (int i = 0; i < values.length; i++)
+        {
+            map.put(keyAt(i), values[i]);
+        }
+        return map;
+    }
+
+    @Nullable String get(@NotNull String key)
+    {
+        int hash = key.hashCode();
+        int i = Arrays.binarySearch(hashes, hash);
+        if (i < 0)
+        {
+            return null;
+        }
+
+        // Binary search returns any of the keys with this hash, so we look at both sides of it
+        for (int j = i; j >= 0 && hashes[j] == hash; j--)
+        {
+            if (keyEquals(j, key))
+            {
+                return values[j];
+            }
+        }
+        for (int j = i + 1; j < hashes.length && hashes[j] == hash; j++)
+        {
+            if (keyEquals(j, key))
+            {
+                return values[j];
+            }
+        }
+        return null;
+    }
+
+    private boolean keyEquals(int index, @NotNull String key)
+    {
+        String prefix = prefixes[keyPrefixes[index]];
+        int start = index == 0 ? 0 : keyEnds[index - 1];
+        int suffixLength = keyEnds[index] - start;
+        return key.length() == prefix.length() + suffixLength
+               && key.startsWith(prefix)
+               && key.regionMatches(prefix.length(), suffixes, start, suffixLength);
+    }
+
+    boolean containsAll(@NotNull Collection<String> keys)
+    {
+        for (String key : keys)
+        {
+            if (get(key) == null)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size()
+    {
+        return values.length;
+    }
+
+    /**
+     * @return the key at the given index, which is built again from its prefix and the rest of it
+     */
+    @NotNull String keyAt(int index)
+    {
+        int start = index == 0 ? 0 : keyEnds[index - 1];
+        return prefixes[keyPrefixes[index]].concat(suffixes.substring(start, keyEnds[index]));
+    }
+
+    @NotNull String valueAt(int index)
+    {
+        return values[index];
+    }
+}
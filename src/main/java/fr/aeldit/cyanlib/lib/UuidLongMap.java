@@ -0,0 +1,308 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * A thread-safe map of {@link UUID}s to a fixed number of primitive longs (1 by default), which doesn't allocate when
+ * adding, reading or removing entries (except when it grows).
+ * <p>
+ * The entries are split into stripes, each one being an open-addressing table (with linear probing) stored in
+ * parallel arrays and guarded by its own lock, so that threads accessing different players rarely wait for each other.
+ * The longs of an entry are always read and written together, under the lock of its stripe
+ */
+final class UuidLongMap
+{
+    private static final int STRIPES = 16;
+    private static final int STRIPES_BITS = 4;
+
+    private static final class Stripe
+    {
+        private final int width;
+        private long[] msbs = new long[16];
+        private long[] lsbs = new long[16];
+        // The values of the entry i are at [i * width, (i + 1) * width)
+        private long[] values;
+        private boolean[] used = new boolean[16];
+        private int size;
+
+        private Stripe(int width)
+        {
+            this.width  = width;
+            this.values = new long[16 * width];
+        }
+
+        private int indexOf(int hash, long msb, long lsb)
+        {
+            int mask = used.length - 1;
+            int i = hash & mask;
+            while (used[i])
+            {
+                if (msbs[i] == msb && lsbs[i] == lsb)
+                {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return -i - 1;
+        }
+
+        /**
+         * @return the index of the entry, which is added if it doesn't exist. The values of an added entry must be
+         * written by the caller
+         */
+        private int slot(int hash, long msb, long lsb)
+        {
+            int i = indexOf(hash, msb, lsb);
+            if (i >= 0)
+            {
+                return i;
+            }
+
+            // Keeps the load factor under 0.5, so that the probe sequences stay short
+            if ((size + 1) * 2 > used.length)
+            {
+                resize();
+                i = indexOf(hash, msb, lsb);
+            }
+            i = -i - 1;
+            used[i] = true;
+            msbs[i] = msb;
+            lsbs[i] = lsb;
+            size++;
+            return i;
+        }
+
+        private boolean remove(int hash, long msb, long lsb)
+        {
+            int i = indexOf(hash, msb, lsb);
+            if (i < 0)
+            {
+                return false;
+            }
+
+            // Moves back the next entries of the probe sequence, so that no tombstones are needed
+            int mask = used.length - 1;
+            int j = i;
+            while (true)
+            {
+                j = (j + 1) & mask;
+                if (!used[j])
+                {
+                    break;
+                }
+                int home = hash(msbs[j], lsbs[j]) & mask;
+                // If the home of the entry j is not cyclically in (i, j], it can be moved to i
+                if (i <= j ? (home <= i || home > j) : (home <= i && home > j))
+                {
+                    msbs[i] = msbs[j];
+                    lsbs[i] = lsbs[j];
+                    System.arraycopy(values, j * width, values, i * width, width);
+                    i = j;
+                }
+            }
+            used[i] = false;
+            size--;
+            return true;
+        }
+
+        private void resize()
+        {
+            long[] oldMsbs = msbs;
+            long[] oldLsbs = lsbs;
+            long[] oldValues = values;
+            boolean[] oldUsed = used;
+
+            int capacity = oldUsed.length * 2;
+            msbs   = new long[capacity];
+            lsbs   = new long[capacity];
+            values = new long[capacity * width];
+            used   = new boolean[capacity];
+            for (int i = 0; i < oldUsed.length; i++)
+            {
+                if (oldUsed[i])
+                {
+                    int j = -indexOf(hash(oldMsbs[i], oldLsbs[i]), oldMsbs[i], oldLsbs[i]) - 1;
+                    used[j] = true;
+                    msbs[j] = oldMsbs[i];
+                    lsbs[j] = oldLsbs[i];
+                    System.arraycopy(oldValues, i * width, values, j * width, width);
+                }
+            }
+        }
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    UuidLongMap()
+    {
+        this(1);
+    }
+
+    /**
+     * @param width the number of longs of each entry. The methods that don't take or return an array only use the
+     *              first one
+     */
+    UuidLongMap(int width)
+    {
+        for (int i = 0; i < STRIPES; i++)
+        {
+            stripes[i] = new Stripe(width);
+        }
+    }
+
+    /**
+     * The hash of the UUID, without the bits used to select the stripe
+     */
+    private static int hash(long msb, long lsb)
+    {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> (32 + STRIPES_BITS));
+    }
+
+    private @NotNull Stripe stripe(long msb, long lsb)
+    {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h >>> 32) & (STRIPES - 1)];
+    }
+
+    void put(@NotNull UUID uuid, long value)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            // The slot is found first, as it may replace the array of values
+            int i = stripe.slot(hash(msb, lsb), msb, lsb);
+            stripe.values[i * stripe.width] = value;
+        }
+    }
+
+    /**
+     * Sets the 3 values of the UUID at once, in a map whose width is 3
+     */
+    void put(@NotNull UUID uuid, long first, long second, long third)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            int i = stripe.slot(hash(msb, lsb), msb, lsb) * stripe.width;
+            stripe.values[i]     = first;
+            stripe.values[i + 1] = second;
+            stripe.values[i + 2] = third;
+        }
+    }
+
+    /**
+     * @return the value of the UUID, or {@code defaultValue} if there is none
+     */
+    long get(@NotNull UUID uuid, long defaultValue)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            int i = stripe.indexOf(hash(msb, lsb), msb, lsb);
+            return i < 0 ? defaultValue : stripe.values[i * stripe.width];
+        }
+    }
+
+    /**
+     * Copies all the values of the UUID, read at once, into the array
+     *
+     * @return whether the UUID has values, the array being left unchanged if it doesn't
+     */
+    boolean get(@NotNull UUID uuid, long @NotNull [] values)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            int i = stripe.indexOf(hash(msb, lsb), msb, lsb);
+            if (i < 0)
+            {
+                return false;
+            }
+            System.arraycopy(stripe.values, i * stripe.width, values, 0, stripe.width);
+            return true;
+        }
+    }
+
+    /**
+     * Sets the value of the UUID if it has none or if the new value is greater than its current one
+     *
+     * @return the previous value, or {@code defaultValue} if there was none
+     */
+    long putIfGreater(@NotNull UUID uuid, long value, long defaultValue)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            int hash = hash(msb, lsb);
+            int i = stripe.indexOf(hash, msb, lsb);
+            if (i < 0)
+            {
+                i = stripe.slot(hash, msb, lsb);
+                stripe.values[i * stripe.width] = value;
+                return defaultValue;
+            }
+
+            long previous = stripe.values[i * stripe.width];
+            if (value > previous)
+            {
+                stripe.values[i * stripe.width] = value;
+            }
+            return previous;
+        }
+    }
+
+    /**
+     * Removes the UUID only if its value is {@code expected}
+     *
+     * @return whether the UUID was removed
+     */
+    boolean remove(@NotNull UUID uuid, long expected)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            int hash = hash(msb, lsb);
+            int i = stripe.indexOf(hash, msb, lsb);
+            return i >= 0 && stripe.values[i * stripe.width] == expected && stripe.remove(hash, msb, lsb);
+        }
+    }
+
+    boolean remove(@NotNull UUID uuid)
+    {
+        long msb = uuid.getMostSignificantBits();
+        long lsb = uuid.getLeastSignificantBits();
+        Stripe stripe = stripe(msb, lsb);
+        synchronized (stripe)
+        {
+            return stripe.remove(hash(msb, lsb), msb, lsb);
+        }
+    }
+
+    int size()
+    {
+        int size = 0;
+        for (Stripe stripe : stripes)
+        {
+            synchronized (stripe)
+            {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+}
@@ -145,7 +145,7 @@ public record CyanLibConfigCommands(String modid, CyanLib libUtils)
 
         ServerPlayerEntity player = source.getPlayer();
         // Player has insufficient permissions
-        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getValue()))
+        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getInt()))
         {
             libUtils.getLanguageUtils().sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
             return 0;
@@ -206,7 +206,7 @@ public record CyanLibConfigCommands(String modid, CyanLib libUtils)
 
         ServerPlayerEntity player = source.getPlayer();
         // Player has insufficient permissions
-        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getValue()))
+        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getInt()))
         {
             libUtils.getLanguageUtils().sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
             return 0;
@@ -256,7 +256,7 @@ public record CyanLibConfigCommands(String modid, CyanLib libUtils)
 
         ServerPlayerEntity player = source.getPlayer();
         // Player has insufficient permissions
-        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getValue()))
+        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getInt()))
         {
             libUtils.getLanguageUtils().sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
             return 0;
@@ -318,7 +318,7 @@ public record CyanLibConfigCommands(String modid, CyanLib libUtils)
 
         ServerPlayerEntity player = source.getPlayer();
         // Player has insufficient permissions
-        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getValue()))
+        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getInt()))
         {
             libUtils.getLanguageUtils().sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
             return 0;
@@ -371,7 +371,7 @@ public record CyanLibConfigCommands(String modid, CyanLib libUtils)
 
         ServerPlayerEntity player = source.getPlayer();
         // Player has insufficient permissions
-        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getValue()))
+        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getInt()))
         {
             libUtils.getLanguageUtils().sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
             return 0;
@@ -606,7 +606,7 @@ public record CyanLibConfigCommands(String modid, CyanLib libUtils)
 
         ServerPlayerEntity player = source.getPlayer();
         // Player has insufficient permissions
-        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getValue()))
+        if (!libUtils.hasPermission(player, MIN_OP_LVL_EDIT_CONFIG.getInt()))
         {
             libUtils.getLanguageUtils().sendPlayerMessageMod(player, CYANLIB_MODID, "error.notOp");
             return 0;
@@ -0,0 +1,100 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the config files so that a crash during a write never leaves a truncated or half-written file behind.
+ * <p>
+ * The content is written to a temporary file in the same directory, which is synced to the disk and then moved over
+ * the original file with an atomic rename. The same content is then written to a backup file ({@code <file>.bak}),
+ * which always contains the last config that was completely written.
+ * <p>
+ * It is also used for the other files written by the library, like the translations bundles
+ */
+public final class AtomicConfigFiles
+{
+    @FunctionalInterface
+    public interface Content
+    {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    private AtomicConfigFiles()
+    {
+    }
+
+    static @NotNull Path backupPath(@NotNull Path path)
+    {
+        return path.resolveSibling("%s.bak".formatted(path.getFileName()));
+    }
+
+    /**
+     * Atomically replaces the file at the given path with the given content, and then updates its backup
+     */
+    static void writeWithBackup(@NotNull Path path, @NotNull Content content) throws IOException
+    {
+        write(path, content);
+        write(backupPath(path), content);
+    }
+
+    /**
+     * Atomically replaces the file at the given path with the given content. If writing the content fails, the file
+     * is left untouched
+     */
+    public static void write(@NotNull Path path, @NotNull Content content) throws IOException
+    {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "%s.".formatted(path.getFileName()), ".tmp");
+
+        try
+        {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE))
+            {
+                OutputStream out = Channels.newOutputStream(channel);
+                content.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+
+            try
+            {
+                Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory(dir);
+        }
+        finally
+        {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Makes the rename durable. This is not supported on every OS (Windows for example), in which case we rely on
+     * the OS to persist it
+     */
+    private static void syncDirectory(@NotNull Path dir)
+    {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ))
+        {
+            channel.force(true);
+        }
+        catch (IOException ignored)
+        {
+        }
+    }
+}
@@ -5,11 +5,15 @@ import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.minecraft.client.option.SimpleOption;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 public class BooleanOption implements IOption<Boolean>
 {
     private final String optionName;
     private final boolean defaultValue;
-    private boolean value;
+    private volatile boolean value;
+    private final List<ChangeListener<Boolean>> listeners = new CopyOnWriteArrayList<>();
 
     public BooleanOption(String optionName, boolean value)
     {
@@ -36,21 +40,62 @@ public class BooleanOption implements IOption<Boolean>
         return value;
     }
 
+    /**
+     * Same as {@link #getValue()}, but without boxing the value
+     */
+    public boolean getBoolean()
+    {
+        return value;
+    }
+
     @Override
     public boolean setValue(Object value)
     {
         if (value instanceof Boolean)
         {
-            this.value = (Boolean) value;
-            return true;
+            return setBoolean((Boolean) value);
         }
         return false;
     }
 
+    /**
+     * Same as {@link #setValue(Object)}, but without boxing the value
+     */
+    public boolean setBoolean(boolean value)
+    {
+        update(value);
+        return true;
+    }
+
     @Override
     public void reset()
     {
-        this.value = defaultValue;
+        update(defaultValue);
+    }
+
+    private void update(boolean newValue)
+    {
+        boolean oldValue = this.value;
+        this.value = newValue;
+        if (oldValue != newValue)
+        {
+            for (ChangeListener<Boolean> listener : listeners)
+            {
+                listener.onChange(this, oldValue, newValue);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(ChangeListener<Boolean> listener)
+    {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ChangeListener<Boolean> listener)
+    {
+        listeners.remove(listener);
     }
 
     @Override
@@ -0,0 +1,165 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import fr.aeldit.cyanlib.lib.CyanLib;
+import net.fabricmc.loader.api.FabricLoader;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static fr.aeldit.cyanlib.core.CyanLibCore.CYANLIB_MODID;
+import static fr.aeldit.cyanlib.lib.CyanLib.CONFIG_CLASS_INSTANCES;
+
+/**
+ * Watches the config directory, and reloads the config of a mod using this library when its {@code <modid>.json} file
+ * is modified. Only the options whose value changed are updated, and the files written by the library itself are
+ * ignored (see {@link CyanLibOptionsStorage#reloadConfig()}).
+ * <p>
+ * A single thread is used for every mod in {@link CyanLib#CONFIG_CLASS_INSTANCES}. It is not started by default, it
+ * is started when the server starts if the {@code hotReloadConfigs} option of CyanLib is enabled, or by calling
+ * {@link #start()}
+ */
+public final class CyanLibConfigWatcher
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(CYANLIB_MODID);
+    // Editors often write a file in several steps, so we wait for the directory to be quiet before reloading
+    private static final long QUIET_PERIOD_MILLIS = 200;
+
+    private static final Object LOCK = new Object();
+    private static @Nullable WatchService watchService;
+
+    private CyanLibConfigWatcher()
+    {
+    }
+
+    public static boolean isRunning()
+    {
+        synchronized (LOCK)
+        {
+            return watchService != null;
+        }
+    }
+
+    /**
+     * Starts watching the config directory. Does nothing if the watcher is already running
+     */
+    public static void start()
+    {
+        synchronized (LOCK)
+        {
+            if (watchService != null)
+            {
+                return;
+            }
+
+            Path configDir = FabricLoader.getInstance().getConfigDir();
+            try
+            {
+                watchService = configDir.getFileSystem().newWatchService();
+                configDir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                                   StandardWatchEventKinds.ENTRY_MODIFY
+                );
+            }
+            catch (IOException e)
+            {
+                LOGGER.error("[CyanLib] Could not watch the config directory {}", configDir, e);
+                stop();
+                return;
+            }
+
+            WatchService service = watchService;
+            Thread thread = new Thread(() -> watch(service), "CyanLib config watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    public static void stop()
+    {
+        synchronized (LOCK)
+        {
+            if (watchService != null)
+            {
+                try
+                {
+                    watchService.close();
+                }
+                catch (IOException e)
+                {
+                    LOGGER.warn("[CyanLib] Could not stop watching the config directory", e);
+                }
+                watchService = null;
+            }
+        }
+    }
+
+    private static void watch(@NotNull WatchService service)
+    {
+        try
+        {
+            while (true)
+            {
+                HashSet<String> modifiedModids = new HashSet<>();
+                WatchKey key = service.take();
+                // Collects the events until no file has been modified during the quiet period
+                while (key != null)
+                {
+                    collectModids(key, modifiedModids);
+                    key.reset();
+                    key = service.poll(QUIET_PERIOD_MILLIS, TimeUnit.MILLISECONDS);
+                }
+                reload(modifiedModids);
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException ignored)
+        {
+        }
+    }
+
+    private static void collectModids(@NotNull WatchKey key, @NotNull Set<String> modids)
+    {
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.context() instanceof Path path)
+            {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(".json"))
+                {
+                    modids.add(fileName.substring(0, fileName.length() - ".json".length()));
+                }
+            }
+        }
+    }
+
+    private static void reload(@NotNull Set<String> modids)
+    {
+        for (String modid : modids)
+        {
+            CyanLib libUtils = CONFIG_CLASS_INSTANCES.get(modid);
+            if (libUtils == null)
+            {
+                continue;
+            }
+
+            try
+            {
+                List<String> changedOptions = libUtils.getOptionsStorage().reloadConfig();
+                if (!changedOptions.isEmpty())
+                {
+                    LOGGER.info("[CyanLib] Reloaded the config of {}, changed options: {}", modid, changedOptions);
+                }
+            }
+            catch (RuntimeException e)
+            {
+                LOGGER.error("[CyanLib] Could not reload the config of {}", modid, e);
+            }
+        }
+    }
+}
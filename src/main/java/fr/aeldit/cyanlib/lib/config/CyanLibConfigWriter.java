@@ -0,0 +1,52 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Writes the configs on a single background thread shared by every {@link CyanLibOptionsStorage}.
+ * <p>
+ * When a write is requested, it is delayed by {@link #WRITE_DELAY_MILLIS}, and every other write requested for the
+ * same storage in the meantime is merged into it, so toggling several options in a row only rewrites the file once
+ */
+public final class CyanLibConfigWriter
+{
+    public static final long WRITE_DELAY_MILLIS = 500;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CyanLib config writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // The storages that have a write waiting to be done
+    private static final Set<CyanLibOptionsStorage> PENDING_STORAGES = ConcurrentHashMap.newKeySet();
+
+    private CyanLibConfigWriter()
+    {
+    }
+
+    static @NotNull ScheduledFuture<?> schedule(@NotNull CyanLibOptionsStorage storage)
+    {
+        PENDING_STORAGES.add(storage);
+        return EXECUTOR.schedule(storage::flush, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    static void done(@NotNull CyanLibOptionsStorage storage)
+    {
+        PENDING_STORAGES.remove(storage);
+    }
+
+    /**
+     * Writes immediately, on the calling thread, every config that has a write waiting to be done. This is called
+     * when the server stops, so no change is lost
+     */
+    public static void flushAll()
+    {
+        for (CyanLibOptionsStorage storage : PENDING_STORAGES)
+        {
+            storage.flush();
+        }
+    }
+}
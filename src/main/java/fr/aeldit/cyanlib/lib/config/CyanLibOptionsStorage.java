@@ -2,7 +2,8 @@ package fr.aeldit.cyanlib.lib.config;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 import fr.aeldit.cyanlib.lib.utils.RULES;
@@ -13,30 +14,61 @@ import net.minecraft.client.option.SimpleOption;
 import net.minecraft.command.CommandSource;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.Writer;
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+
+import static fr.aeldit.cyanlib.core.CyanLibCore.CYANLIB_MODID;
 
 public class CyanLibOptionsStorage
 {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CYANLIB_MODID);
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+
     private final String modid;
     private final ICyanLibConfig cyanLibConfigClass;
-    // We use a synchronized list because 2 players can edit the config at the same time when in multiplayer
-    private final List<IOption<?>> optionsList = Collections.synchronizedList(new ArrayList<>());
+    // The table is immutable, so the options can be looked up without any lock
+    private final OptionDescriptorTable optionsTable;
+    private final List<IOption<?>> optionsList;
+    // 2 players can edit the config at the same time when in multiplayer, so the writers are serialized by this lock,
+    // and each of them publishes a new snapshot of the values once it is done
+    private final Object writeLock = new Object();
+    private volatile OptionsSnapshot snapshot;
+    private final List<OptionsChangeListener> listeners = new CopyOnWriteArrayList<>();
+    // The write scheduled by writeConfigAsync(), which all the writes requested before it runs are merged into
+    private final Object pendingWriteLock = new Object();
+    private @Nullable CompletableFuture<Void> pendingWrite;
+    private @Nullable ScheduledFuture<?> pendingWriteTask;
+    // The content of the last config file written by the storage, so that the watcher doesn't reload our own writes.
+    // Only accessed while holding the writeLock
+    private byte @Nullable [] lastWrittenContent;
+    // The write that is being done, kept until it completes so that flush() can wait for it
+    private @Nullable CompletableFuture<Void> inFlightWrite;
 
     public CyanLibOptionsStorage(String modid, ICyanLibConfig configClass)
     {
         this.modid              = modid;
         this.cyanLibConfigClass = configClass;
-        readConfig();
+        this.optionsTable       = OptionDescriptorTable.of(configClass);
+        this.optionsList        = optionsTable.getOptions();
+        boolean fileNeedsUpdate = readConfig();
+        publishSnapshot();
+        optionsList.forEach(this::publishOnChange);
+        if (fileNeedsUpdate)
+        {
+            writeConfig();
+        }
     }
 
     public ICyanLibConfig getConfigClass()
@@ -49,44 +81,97 @@ public class CyanLibOptionsStorage
         return optionsList.stream().map(IOption::getName).toList();
     }
 
+    public OptionDescriptorTable getOptionsTable()
+    {
+        return optionsTable;
+    }
+
+    /**
+     * Returns the last published snapshot of the options values. The snapshot is immutable and can be read from any
+     * thread without locking.
+     * <p>
+     * Each modification of an option publishes a new snapshot, including the ones made directly on the option (by the
+     * config screen for example). The modifications made through {@link #resetOptions} and {@link #reloadConfig} are
+     * published together in a single snapshot
+     */
+    public OptionsSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * Adds a listener notified once per published snapshot in which options changed, so that dependents can cache
+     * values derived from the options and recompute them only when needed.
+     * <p>
+     * The listeners are called on the thread that modified the options, while the other writers are waiting, so they
+     * should not block
+     */
+    public void addListener(OptionsChangeListener listener)
+    {
+        listeners.add(listener);
+    }
+
+    public void removeListener(OptionsChangeListener listener)
+    {
+        listeners.remove(listener);
+    }
+
     @Environment(EnvType.CLIENT)
     public static SimpleOption<?> @NotNull [] asConfigOptions(@NotNull ICyanLibConfig configClass)
     {
-        ArrayList<SimpleOption<?>> options = new ArrayList<>(configClass.getClass().getDeclaredFields().length);
-
-        for (Field field : configClass.getClass().getDeclaredFields())
-        {
-            try
-            {
-                options.add(((IOption<?>) field.get(null)).asConfigOption());
-            }
-            catch (IllegalAccessException e)
-            {
-                throw new RuntimeException(e);
-            }
-        }
-        return options.toArray(SimpleOption[]::new);
+        return OptionDescriptorTable.of(configClass).getOptions().stream()
+                                    .map(IOption::asConfigOption)
+                                    .toArray(SimpleOption[]::new);
     }
 
+    /**
+     * @return the value of the option in the last published snapshot, or {@code null} if it doesn't exist
+     * @see #getSnapshot()
+     */
     public @Nullable Object getOptionValue(String optionName)
     {
-        return optionsList.stream()
-                          .filter(option -> optionName.equals(option.getName()))
-                          .map(IOption::getValue)
-                          .findFirst()
-                          .orElse(null);
+        return snapshot.getValue(optionName);
+    }
+
+    /**
+     * Returns the option with the given name if it is a {@link BooleanOption}, so it can be kept by the caller and
+     * read with {@link BooleanOption#getBoolean()} without boxing or looking it up again
+     *
+     * @return the option, or {@code null} if it doesn't exist or is not a {@link BooleanOption}
+     */
+    public @Nullable BooleanOption getBooleanOption(String optionName)
+    {
+        return getOption(optionName) instanceof BooleanOption booleanOption ? booleanOption : null;
+    }
+
+    /**
+     * Returns the option with the given name if it is an {@link IntegerOption}, so it can be kept by the caller and
+     * read with {@link IntegerOption#getInt()} without boxing or looking it up again
+     *
+     * @return the option, or {@code null} if it doesn't exist or is not an {@link IntegerOption}
+     */
+    public @Nullable IntegerOption getIntegerOption(String optionName)
+    {
+        return getOption(optionName) instanceof IntegerOption integerOption ? integerOption : null;
     }
 
     public boolean setOption(String optionName, Object value, boolean save)
     {
-        IOption<?> option = optionsList.stream().filter(opt -> opt.getName().equals(optionName))
-                                       .findFirst().orElse(null);
+        IOption<?> option = getOption(optionName);
         if (option != null)
         {
-            boolean success = option.setValue(value);
+            boolean success;
+            synchronized (writeLock)
+            {
+                success = option.setValue(value);
+                if (success)
+                {
+                    publishSnapshot();
+                }
+            }
             if (save)
             {
-                writeConfig();
+                writeConfigAsync();
             }
             return success;
         }
@@ -95,12 +180,16 @@ public class CyanLibOptionsStorage
 
     public void resetOptions()
     {
-        optionsList.forEach(IOption::reset);
+        synchronized (writeLock)
+        {
+            optionsList.forEach(IOption::reset);
+            publishSnapshot();
+        }
     }
 
     public boolean optionExists(String optionName)
     {
-        return optionsList.stream().anyMatch(option -> optionName.equals(option.getName()));
+        return optionsTable.get(optionName) != null;
     }
 
     /**
@@ -118,248 +207,404 @@ public class CyanLibOptionsStorage
 
     public boolean hasRule(String optionName, RULES rule)
     {
-        return optionsList.stream().anyMatch(option -> option.getName().equals(optionName) && option.getRule() == rule);
+        IOption<?> option = getOption(optionName);
+        return option != null && option.getRule() == rule;
     }
 
-    private void readConfig()
+    private @Nullable IOption<?> getOption(String optionName)
     {
-        Path path = FabricLoader.getInstance().getConfigDir().resolve("%s.json".formatted(modid));
+        OptionDescriptor descriptor = optionsTable.get(optionName);
+        return descriptor == null ? null : descriptor.option();
+    }
 
-        // If the file does not exist, we simply load the class in memory
-        if (!Files.exists(path))
-        {
-            for (Field field : cyanLibConfigClass.getClass().getDeclaredFields())
+    /**
+     * Publishes a new snapshot when the option is modified outside of this storage, so that {@link #getSnapshot()}
+     * never lags behind the options
+     */
+    private <T> void publishOnChange(@NotNull IOption<T> option)
+    {
+        option.addListener((changedOption, oldValue, newValue) -> {
+            // The modifications made by the storage itself are published once all the options were modified
+            if (!Thread.holdsLock(writeLock))
             {
-                if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())
-                    && Modifier.isFinal(field.getModifiers()))
-                {
-                    if (BooleanOption.class.isAssignableFrom(field.getType()))
-                    {
-                        try
-                        {
-                            BooleanOption booleanOption = (BooleanOption) field.get(null);
-                            optionsList.add(booleanOption);
-                        }
-                        catch (IllegalAccessException e)
-                        {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                    else if (IntegerOption.class.isAssignableFrom(field.getType()))
-                    {
-                        try
-                        {
-                            IntegerOption integerOption = (IntegerOption) field.get(null);
-                            optionsList.add(integerOption);
-                        }
-                        catch (IllegalAccessException e)
-                        {
-                            throw new RuntimeException(e);
-                        }
-                    }
-                }
+                publishSnapshot();
             }
-        }
-        // Otherwise, we load the config from the file
-        else
+        });
+    }
+
+    /**
+     * Publishes a snapshot of the current values of the options, and notifies the listeners if some changed
+     *
+     * @return the names of the options that changed since the last published snapshot
+     */
+    private List<String> publishSnapshot()
+    {
+        synchronized (writeLock)
         {
-            Map<String, Object> config;
+            OptionsSnapshot previous = snapshot;
+            OptionsSnapshot current = new OptionsSnapshot(optionsList);
+            snapshot = current;
 
-            try
+            if (previous == null)
             {
-                Gson gson = new Gson();
-                Reader reader = Files.newBufferedReader(path);
-                TypeToken<Map<String, Object>> mapType = new TypeToken<>()
+                return List.of();
+            }
+
+            ArrayList<String> changedOptions = new ArrayList<>();
+            for (Map.Entry<String, Object> entry : current.asMap().entrySet())
+            {
+                if (!entry.getValue().equals(previous.getValue(entry.getKey())))
                 {
-                };
-                config = gson.fromJson(reader, mapType);
-                reader.close();
+                    changedOptions.add(entry.getKey());
+                }
             }
-            catch (IOException e)
+
+            if (!changedOptions.isEmpty())
             {
-                throw new RuntimeException(e);
+                OptionsChangeListener.Event event = new OptionsChangeListener.Event(
+                        previous, current, List.copyOf(changedOptions)
+                );
+                for (OptionsChangeListener listener : listeners)
+                {
+                    listener.onOptionsChanged(event);
+                }
             }
+            return changedOptions;
+        }
+    }
 
-            if (config != null && !config.isEmpty())
+    private @NotNull Path getConfigPath()
+    {
+        return FabricLoader.getInstance().getConfigDir().resolve("%s.json".formatted(modid));
+    }
+
+    /**
+     * Reads the whole config file, and then writes the value of each key into the matching option, so that no option
+     * is modified if the file can't be read completely. The keys whose value is invalid are reported and ignored, the
+     * option keeping its current value
+     *
+     * @return whether the file needs to be rewritten, because options are missing, unknown or invalid in it
+     * @throws IOException           if the file could not be read or is not valid JSON
+     * @throws IllegalStateException if the file does not contain a JSON object
+     */
+    private boolean readConfigFile(@NotNull Path path) throws IOException
+    {
+        return readConfigFile(path, Files.newBufferedReader(path));
+    }
+
+    /**
+     * @param path the path of the config file, used in the messages
+     * @see #readConfigFile(Path)
+     */
+    private boolean readConfigFile(@NotNull Path path, @NotNull Reader content) throws IOException
+    {
+        boolean fileNeedsUpdate = false;
+        LinkedHashMap<OptionDescriptor, Object> values = new LinkedHashMap<>(optionsList.size() * 2);
+
+        try (JsonReader reader = new JsonReader(content))
+        {
+            reader.beginObject();
+            while (reader.hasNext())
             {
-                // If there are options present in teh code but not in the config file, we need to save the new options
-                boolean fileNeedsUpdate = false;
+                String optionName = reader.nextName();
+                OptionDescriptor descriptor = optionsTable.get(optionName);
 
-                // Puts doubles with 0 as decimal as integers
-                for (Map.Entry<String, Object> entry : config.entrySet())
+                // Options present in the config file but not in the code are removed from the file
+                if (descriptor == null)
                 {
-                    if (entry.getValue() instanceof Double)
-                    {
-                        // Integer values are stored as double in the gson file, so by doing this we can put them back
-                        // to an int
-                        if (((Double) entry.getValue()).intValue() == (Double) entry.getValue())
-                        {
-                            config.put(entry.getKey(), ((Double) entry.getValue()).intValue());
-                        }
-                    }
+                    reader.skipValue();
+                    fileNeedsUpdate = true;
+                    continue;
                 }
 
-                // Remove options present in the config file but not in the code
-                ArrayList<String> toRemove = new ArrayList<>();
-                for (String option : config.keySet())
+                Object value = readOption(reader, descriptor, path);
+                if (value == null)
                 {
-                    boolean exists = false;
-
-                    for (Field field : cyanLibConfigClass.getClass().getDeclaredFields())
-                    {
-                        if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())
-                            && Modifier.isFinal(field.getModifiers()))
-                        {
-                            if (BooleanOption.class.isAssignableFrom(field.getType()))
-                            {
-                                try
-                                {
-                                    if (((BooleanOption) field.get(null)).getName().equals(option))
-                                    {
-                                        exists = true;
-                                        break;
-                                    }
-                                }
-                                catch (IllegalAccessException e)
-                                {
-                                    throw new RuntimeException(e);
-                                }
-                            }
-                            else if (IntegerOption.class.isAssignableFrom(field.getType()))
-                            {
-                                try
-                                {
-                                    if (((IntegerOption) field.get(null)).getName().equals(option))
-                                    {
-                                        exists = true;
-                                        break;
-                                    }
-                                }
-                                catch (IllegalAccessException e)
-                                {
-                                    throw new RuntimeException(e);
-                                }
-                            }
-                        }
-                    }
-
-                    if (!exists)
-                    {
-                        toRemove.add(option);
-                    }
+                    fileNeedsUpdate = true;
                 }
-
-                for (String option : toRemove)
+                else
                 {
-                    config.remove(option);
+                    values.put(descriptor, value);
                 }
+            }
+            reader.endObject();
+        }
+
+        for (Map.Entry<OptionDescriptor, Object> entry : values.entrySet())
+        {
+            if (!applyOption(entry.getKey(), entry.getValue(), path))
+            {
+                fileNeedsUpdate = true;
+            }
+        }
+
+        // If there are options present in the code but not in the config file, we need to save the new options
+        return fileNeedsUpdate || values.size() < optionsList.size();
+    }
+
+    /**
+     * Reads the next value of the reader for the given option, without modifying the option
+     *
+     * @return the value, or {@code null} if it doesn't have the type of the option
+     */
+    private @Nullable Object readOption(
+            @NotNull JsonReader reader, @NotNull OptionDescriptor descriptor, @NotNull Path path
+    ) throws IOException
+    {
+        JsonToken token = reader.peek();
 
-                if (!toRemove.isEmpty())
+        switch (descriptor.type())
+        {
+            case BOOLEAN ->
+            {
+                if (token != JsonToken.BOOLEAN)
                 {
-                    fileNeedsUpdate = true;
-                    toRemove.clear();
+                    reader.skipValue();
+                    LOGGER.warn("[CyanLib] Ignoring the option {} in {}: expected a boolean, found {}",
+                                descriptor.name(), path, token
+                    );
+                    return null;
                 }
-
-                // For each option found in the config file, update the value of the option object
-                // If an option object is not present in the file, it is added to the options and the file is updated
-                for (Field field : cyanLibConfigClass.getClass().getDeclaredFields())
+                return reader.nextBoolean();
+            }
+            case INTEGER ->
+            {
+                if (token != JsonToken.NUMBER)
                 {
-                    if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())
-                        && Modifier.isFinal(field.getModifiers()))
-                    {
-                        if (BooleanOption.class.isAssignableFrom(field.getType()))
-                        {
-                            try
-                            {
-                                BooleanOption booleanOption = (BooleanOption) field.get(null);
-
-                                if (config.containsKey(booleanOption.getName()))
-                                {
-                                    boolean configFileValue = (Boolean) config.get(booleanOption.getName());
-                                    // If the value in the config file is different from the default one, we change
-                                    // its value in the class
-                                    if (configFileValue != booleanOption.getValue())
-                                    {
-                                        booleanOption.setValue(configFileValue);
-                                    }
-                                }
-                                else
-                                {
-                                    fileNeedsUpdate = true;
-                                }
-                                optionsList.add(booleanOption);
-                            }
-                            catch (IllegalAccessException e)
-                            {
-                                throw new RuntimeException(e);
-                            }
-                        }
-                        else if (IntegerOption.class.isAssignableFrom(field.getType()))
-                        {
-                            try
-                            {
-                                IntegerOption integerOption = (IntegerOption) field.get(null);
-
-                                if (config.containsKey(integerOption.getName()))
-                                {
-                                    int configFileValue = (Integer) config.get(integerOption.getName());
-                                    // If the value in the config file is different from the default one, we change
-                                    // its value in the class
-                                    if (configFileValue != integerOption.getValue())
-                                    {
-                                        integerOption.setValue(configFileValue);
-                                    }
-                                }
-                                else
-                                {
-                                    fileNeedsUpdate = true;
-                                }
-                                optionsList.add(integerOption);
-                            }
-                            catch (IllegalAccessException e)
-                            {
-                                throw new RuntimeException(e);
-                            }
-                        }
-                    }
+                    reader.skipValue();
+                    LOGGER.warn("[CyanLib] Ignoring the option {} in {}: expected an integer, found {}",
+                                descriptor.name(), path, token
+                    );
+                    return null;
                 }
 
-                if (fileNeedsUpdate)
+                double value = reader.nextDouble();
+                if (value != (int) value)
                 {
-                    writeConfig();
+                    LOGGER.warn("[CyanLib] Ignoring the option {} in {}: {} is not an integer",
+                                descriptor.name(), path, value
+                    );
+                    return null;
                 }
+                return (int) value;
             }
         }
+        return null;
     }
 
-    public void writeConfig()
+    /**
+     * Writes the value read from the config file into the option
+     *
+     * @return whether the value was valid for the option
+     */
+    private boolean applyOption(@NotNull OptionDescriptor descriptor, @NotNull Object value, @NotNull Path path)
     {
-        Map<String, Object> config = optionsList.stream()
-                                                .collect(Collectors.toMap(IOption::getName, IOption::getValue));
+        if (descriptor.option() instanceof BooleanOption option)
+        {
+            boolean booleanValue = (Boolean) value;
+            return booleanValue == option.getBoolean() || option.setBoolean(booleanValue);
+        }
+
+        IntegerOption option = (IntegerOption) descriptor.option();
+        int intValue = (Integer) value;
+        // If the value in the config file is different from the current one, we change it in the class
+        if (intValue != option.getInt() && !option.setInt(intValue))
+        {
+            LOGGER.warn("[CyanLib] Ignoring the option {} in {}: {} does not respect the rule {}",
+                        descriptor.name(), path, intValue, descriptor.rule()
+            );
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the file needs to be rewritten
+     */
+    private boolean readConfig()
+    {
+        Path path = getConfigPath();
+
+        // If the file does not exist, the options keep their default values
+        if (!Files.exists(path))
+        {
+            return false;
+        }
+
+        boolean fileNeedsUpdate;
+        try
+        {
+            fileNeedsUpdate = readConfigFile(path);
+        }
+        catch (IOException | IllegalStateException e)
+        {
+            LOGGER.warn("[CyanLib] Could not read the config file {}", path, e);
+            // The options read before the error are reset, as the file is empty or corrupted
+            optionsList.forEach(IOption::reset);
+            fileNeedsUpdate = false;
+
+            // We use the last config that was completely written
+            Path backupPath = AtomicConfigFiles.backupPath(path);
+            if (Files.exists(backupPath))
+            {
+                LOGGER.warn("[CyanLib] The config file {} is invalid, loading its backup instead", path);
+                try
+                {
+                    fileNeedsUpdate = readConfigFile(backupPath);
+                }
+                catch (IOException | IllegalStateException backupException)
+                {
+                    LOGGER.warn("[CyanLib] Could not read the config file {}", backupPath, backupException);
+                    optionsList.forEach(IOption::reset);
+                }
+            }
+        }
+
+        return fileNeedsUpdate;
+    }
 
-        Path path = FabricLoader.getInstance().getConfigDir().resolve("%s.json".formatted(modid));
+    /**
+     * Reads the config file again and applies the values that changed since it was last read. The file is never
+     * rewritten by this method, even if it contains invalid values (they are ignored), so that reloading a file
+     * doesn't modify it.
+     * <p>
+     * If the file can't be read or is not valid JSON (because it is being written by an editor for example), the
+     * options keep their current values. The file is also ignored if it is the last one written by this storage, so
+     * that the options modified since then are not reverted when the watcher sees our own write
+     *
+     * @return the names of the options whose value changed
+     */
+    public List<String> reloadConfig()
+    {
+        Path path = getConfigPath();
         if (!Files.exists(path))
+        {
+            return List.of();
+        }
+
+        synchronized (writeLock)
         {
             try
             {
-                Files.createFile(path);
+                byte[] content = Files.readAllBytes(path);
+                // The file was rewritten by us, and the options may have been modified since then
+                if (Arrays.equals(content, lastWrittenContent))
+                {
+                    return List.of();
+                }
+                readConfigFile(
+                        path, new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8)
+                );
             }
-            catch (IOException e)
+            catch (IOException | IllegalStateException e)
             {
-                throw new RuntimeException(e);
+                // The file is read completely before any option is modified, so the options keep their values
+                LOGGER.warn("[CyanLib] Could not reload the config file {}", path, e);
+                return List.of();
+            }
+
+            return publishSnapshot();
+        }
+    }
+
+    /**
+     * Requests the config to be written on the {@link CyanLibConfigWriter} thread. The write is delayed a little, and
+     * all the requests made before it happens are merged into it
+     *
+     * @return a future completed once the file has been written, which can be waited on if the caller needs the
+     * changes to be saved
+     */
+    public CompletableFuture<Void> writeConfigAsync()
+    {
+        synchronized (pendingWriteLock)
+        {
+            if (pendingWrite == null)
+            {
+                pendingWrite     = new CompletableFuture<>();
+                pendingWriteTask = CyanLibConfigWriter.schedule(this);
             }
+            return pendingWrite;
+        }
+    }
+
+    /**
+     * If a write requested by {@link #writeConfigAsync()} hasn't been done yet, it is done immediately on the
+     * calling thread. If it is being done by another thread, waits until it is done
+     */
+    public void flush()
+    {
+        CompletableFuture<Void> write;
+        CompletableFuture<Void> otherWrite = null;
+        synchronized (pendingWriteLock)
+        {
+            write = pendingWrite;
+            if (write == null)
+            {
+                otherWrite = inFlightWrite;
+            }
+            else
+            {
+                // If we are not called by the scheduled task itself, it is no longer needed
+                Objects.requireNonNull(pendingWriteTask).cancel(false);
+                pendingWrite     = null;
+                pendingWriteTask = null;
+                inFlightWrite    = write;
+            }
+        }
+
+        if (write == null)
+        {
+            if (otherWrite != null)
+            {
+                // The writer thread is a daemon, so its write could be interrupted if we returned and the JVM exited
+                otherWrite.exceptionally(e -> null).join();
+            }
+            return;
         }
 
         try
         {
-            Gson gson = new GsonBuilder().setPrettyPrinting().create();
-            Writer writer = Files.newBufferedWriter(path);
-            gson.toJson(config, writer);
-            writer.close();
+            writeConfig();
+            write.complete(null);
         }
-        catch (IOException e)
+        catch (RuntimeException e)
         {
-            throw new RuntimeException(e);
+            LOGGER.error("[CyanLib] Could not write the config of the mod {}", modid, e);
+            write.completeExceptionally(e);
+        }
+        finally
+        {
+            synchronized (pendingWriteLock)
+            {
+                if (inFlightWrite == write)
+                {
+                    inFlightWrite = null;
+                }
+                // Another write may have been requested or started during this one
+                if (pendingWrite == null && inFlightWrite == null)
+                {
+                    CyanLibConfigWriter.done(this);
+                }
+            }
+        }
+    }
+
+    public void writeConfig()
+    {
+        synchronized (writeLock)
+        {
+            Map<String, Object> config = snapshot.asMap();
+
+            try
+            {
+                byte[] content = PRETTY_GSON.toJson(config).getBytes(StandardCharsets.UTF_8);
+                AtomicConfigFiles.writeWithBackup(getConfigPath(), out -> out.write(content));
+                lastWrittenContent = content;
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException(e);
+            }
         }
     }
 }
@@ -0,0 +1,27 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import java.util.List;
+
+/**
+ * A registry of the options of an {@link ICyanLibConfig} implementation, generated at compile time by the CyanLib
+ * annotation processor (see {@code fr.aeldit.cyanlib.processor.OptionRegistryProcessor}).
+ * <p>
+ * The registry of a config class {@code com.example.MyConfig} is named {@code com.example.MyConfig_CyanLibOptions}.
+ * When it exists, it is used instead of scanning the fields of the config class with reflection. To generate it,
+ * add CyanLib to the annotation processors of your mod:
+ *
+ * <pre>{@code
+ *      dependencies {
+ *          annotationProcessor("maven.modrinth:cyanlib:<version>")
+ *      }
+ * }</pre>
+ */
+public interface ICyanLibOptionRegistry
+{
+    String SUFFIX = "_CyanLibOptions";
+
+    /**
+     * @return the options of the config class, in the order in which they are declared
+     */
+    List<IOption<?>> getOptions();
+}
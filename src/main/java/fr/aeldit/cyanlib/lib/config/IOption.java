@@ -17,6 +17,34 @@ public interface IOption<T>
 
     void reset();
 
+    /**
+     * Adds a listener called each time the value of this option changes, after it was changed by
+     * {@link #setValue(Object)} or {@link #reset()}.
+     * <p>
+     * The options that don't notify their changes can't be listened to, so this throws an
+     * {@link UnsupportedOperationException} unless it is overridden, like in {@link BooleanOption} and
+     * {@link IntegerOption}
+     */
+    default void addListener(ChangeListener<T> listener)
+    {
+        throw new UnsupportedOperationException(
+                "The option %s (%s) doesn't support change listeners".formatted(getName(), getClass().getName())
+        );
+    }
+
+    /**
+     * Does nothing unless it is overridden, as the listener can't have been added
+     */
+    default void removeListener(ChangeListener<T> listener)
+    {
+    }
+
     @Environment(EnvType.CLIENT)
     SimpleOption<?> asConfigOption();
+
+    @FunctionalInterface
+    interface ChangeListener<T>
+    {
+        void onChange(IOption<T> option, T oldValue, T newValue);
+    }
 }
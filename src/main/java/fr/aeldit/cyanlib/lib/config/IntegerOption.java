@@ -7,13 +7,17 @@ import net.minecraft.client.option.SimpleOption;
 import net.minecraft.text.Text;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 @SuppressWarnings("unused")
 public class IntegerOption implements IOption<Integer>
 {
     private final String optionName;
     private final int defaultValue, min, max;
     private final RULES rule;
-    private int value;
+    private volatile int value;
+    private final List<ChangeListener<Integer>> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * Use when no rules are given (makes this integer option store just the value)
@@ -112,24 +116,40 @@ public class IntegerOption implements IOption<Integer>
         return value;
     }
 
+    /**
+     * Same as {@link #getValue()}, but without boxing the value
+     */
+    public int getInt()
+    {
+        return value;
+    }
+
     @Override
     public boolean setValue(Object valueArg)
     {
         if (valueArg instanceof Integer)
         {
-            int value = (Integer) valueArg;
-            if (rule.equals(RULES.NONE)
-                || (rule.equals(RULES.POSITIVE_VALUE) && value > 0)
-                || (rule.equals(RULES.NEGATIVE_VALUE) && value < 0)
-                || (rule.equals(RULES.OP_LEVELS) && value >= 0 && value <= 4)
-                || (rule.equals(RULES.MAX_VALUE) && value <= max)
-                || (rule.equals(RULES.MIN_VALUE) && value >= min)
-                || (rule.equals(RULES.RANGE) && value >= min && value <= max)
-            )
-            {
-                this.value = value;
-                return true;
-            }
+            return setInt((Integer) valueArg);
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #setValue(Object)}, but without boxing the value
+     */
+    public boolean setInt(int value)
+    {
+        if (rule.equals(RULES.NONE)
+            || (rule.equals(RULES.POSITIVE_VALUE) && value > 0)
+            || (rule.equals(RULES.NEGATIVE_VALUE) && value < 0)
+            || (rule.equals(RULES.OP_LEVELS) && value >= 0 && value <= 4)
+            || (rule.equals(RULES.MAX_VALUE) && value <= max)
+            || (rule.equals(RULES.MIN_VALUE) && value >= min)
+            || (rule.equals(RULES.RANGE) && value >= min && value <= max)
+        )
+        {
+            update(value);
+            return true;
         }
         return false;
     }
@@ -137,7 +157,32 @@ public class IntegerOption implements IOption<Integer>
     @Override
     public void reset()
     {
-        this.value = defaultValue;
+        update(defaultValue);
+    }
+
+    private void update(int newValue)
+    {
+        int oldValue = this.value;
+        this.value = newValue;
+        if (oldValue != newValue)
+        {
+            for (ChangeListener<Integer> listener : listeners)
+            {
+                listener.onChange(this, oldValue, newValue);
+            }
+        }
+    }
+
+    @Override
+    public void addListener(ChangeListener<Integer> listener)
+    {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(ChangeListener<Integer> listener)
+    {
+        listeners.remove(listener);
     }
 
     @Override
@@ -0,0 +1,31 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import fr.aeldit.cyanlib.lib.utils.RULES;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Describes an option declared in an {@link ICyanLibConfig} implementation
+ *
+ * @param name   the name of the option
+ * @param option the option object, stored in a {@code public static final} field of the config class
+ * @param type   the type of the value of the option
+ * @param rule   the rule of the option
+ */
+public record OptionDescriptor(@NotNull String name, @NotNull IOption<?> option, @NotNull Type type, @NotNull RULES rule)
+{
+    public enum Type
+    {
+        BOOLEAN,
+        INTEGER
+    }
+
+    static @NotNull OptionDescriptor of(@NotNull IOption<?> option)
+    {
+        return new OptionDescriptor(
+                option.getName(),
+                option,
+                option instanceof BooleanOption ? Type.BOOLEAN : Type.INTEGER,
+                option.getRule()
+        );
+    }
+}
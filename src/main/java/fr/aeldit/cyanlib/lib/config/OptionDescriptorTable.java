@@ -0,0 +1,141 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The options declared in an {@link ICyanLibConfig} implementation, in their declaration order and indexed by name.
+ * <p>
+ * The table of each config class is only built once, and cached for the class. It is built from the
+ * {@link ICyanLibOptionRegistry} generated for the class at compile time if there is one, and by scanning the fields
+ * of the class with reflection otherwise
+ */
+public final class OptionDescriptorTable
+{
+    private static final ClassValue<OptionDescriptorTable> TABLES = new ClassValue<>()
+    {
+        @Override
+        protected OptionDescriptorTable computeValue(@NotNull Class<?> configClass)
+        {
+            ICyanLibOptionRegistry registry = findRegistry(configClass);
+            return registry == null ? scan(configClass) : fromRegistry(registry);
+        }
+    };
+
+    private final List<OptionDescriptor> descriptors;
+    private final List<IOption<?>> options;
+    private final Map<String, OptionDescriptor> descriptorsByName;
+
+    OptionDescriptorTable(@NotNull List<OptionDescriptor> descriptors)
+    {
+        Map<String, OptionDescriptor> descriptorsByName = new HashMap<>(descriptors.size() * 2);
+        for (OptionDescriptor descriptor : descriptors)
+        {
+            descriptorsByName.put(descriptor.name(), descriptor);
+        }
+
+        this.descriptors       = List.copyOf(descriptors);
+        this.options           = descriptors.stream().<IOption<?>>map(OptionDescriptor::option).toList();
+        this.descriptorsByName = Map.copyOf(descriptorsByName);
+    }
+
+    public static @NotNull OptionDescriptorTable of(@NotNull ICyanLibConfig configClass)
+    {
+        return TABLES.get(configClass.getClass());
+    }
+
+    /**
+     * @return the registry generated for the given class, or {@code null} if it has none
+     */
+    static @Nullable ICyanLibOptionRegistry findRegistry(@NotNull Class<?> configClass)
+    {
+        Class<?> registryClass;
+        try
+        {
+            registryClass = Class.forName(
+                    configClass.getName() + ICyanLibOptionRegistry.SUFFIX, true, configClass.getClassLoader()
+            );
+        }
+        catch (ClassNotFoundException e)
+        {
+            return null;
+        }
+
+        if (!ICyanLibOptionRegistry.class.isAssignableFrom(registryClass))
+        {
+            return null;
+        }
+
+        try
+        {
+            return (ICyanLibOptionRegistry) registryClass.getDeclaredConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            return null;
+        }
+    }
+
+    static @NotNull OptionDescriptorTable fromRegistry(@NotNull ICyanLibOptionRegistry registry)
+    {
+        return new OptionDescriptorTable(registry.getOptions().stream().map(OptionDescriptor::of).toList());
+    }
+
+    /**
+     * Classifies the {@code public static final} option fields of the given class
+     */
+    static @NotNull OptionDescriptorTable scan(@NotNull Class<?> configClass)
+    {
+        ArrayList<OptionDescriptor> descriptors = new ArrayList<>();
+
+        for (Field field : configClass.getDeclaredFields())
+        {
+            if (Modifier.isPublic(field.getModifiers()) && Modifier.isStatic(field.getModifiers())
+                && Modifier.isFinal(field.getModifiers())
+                && (BooleanOption.class.isAssignableFrom(field.getType())
+                    || IntegerOption.class.isAssignableFrom(field.getType()))
+            )
+            {
+                try
+                {
+                    // The config classes that are private (which have no registry) are not accessible from here
+                    field.setAccessible(true);
+                    descriptors.add(OptionDescriptor.of((IOption<?>) field.get(null)));
+                }
+                catch (IllegalAccessException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        return new OptionDescriptorTable(descriptors);
+    }
+
+    /**
+     * @return the descriptors of the options, in the order in which they are declared in the config class
+     */
+    public List<OptionDescriptor> getDescriptors()
+    {
+        return descriptors;
+    }
+
+    /**
+     * @return the options, in the order in which they are declared in the config class
+     */
+    public List<IOption<?>> getOptions()
+    {
+        return options;
+    }
+
+    public @Nullable OptionDescriptor get(String optionName)
+    {
+        return descriptorsByName.get(optionName);
+    }
+}
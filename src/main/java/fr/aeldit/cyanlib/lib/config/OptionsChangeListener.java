@@ -0,0 +1,29 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A listener called once each time a {@link CyanLibOptionsStorage} publishes a new snapshot in which at least one
+ * option changed.
+ * <p>
+ * Bulk operations like {@link CyanLibOptionsStorage#resetOptions()} or {@link CyanLibOptionsStorage#reloadConfig()}
+ * send a single event containing every option they changed
+ */
+@FunctionalInterface
+public interface OptionsChangeListener
+{
+    void onOptionsChanged(@NotNull Event event);
+
+    /**
+     * @param previous       the values before the change
+     * @param current        the values after the change
+     * @param changedOptions the names of the options whose value changed, in their declaration order
+     */
+    record Event(
+            @NotNull OptionsSnapshot previous, @NotNull OptionsSnapshot current, @NotNull List<String> changedOptions
+    )
+    {
+    }
+}
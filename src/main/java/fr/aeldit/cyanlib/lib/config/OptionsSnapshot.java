@@ -0,0 +1,53 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable view of the values of every option of a {@link CyanLibOptionsStorage}, taken at a single point in
+ * time.
+ * <p>
+ * A new snapshot is published by the storage each time its options are modified through it, so a snapshot can be
+ * read from any thread without locking, and the values it contains will never change
+ */
+public final class OptionsSnapshot
+{
+    private final Map<String, Object> values;
+
+    OptionsSnapshot(@NotNull List<IOption<?>> options)
+    {
+        LinkedHashMap<String, Object> values = new LinkedHashMap<>(options.size() * 2);
+        for (IOption<?> option : options)
+        {
+            values.put(option.getName(), option.getValue());
+        }
+        this.values = Collections.unmodifiableMap(values);
+    }
+
+    public @Nullable Object getValue(String optionName)
+    {
+        return values.get(optionName);
+    }
+
+    /**
+     * @return the names of the options, in the order in which they are declared in the config class
+     */
+    public List<String> getOptionsNames()
+    {
+        return List.copyOf(values.keySet());
+    }
+
+    /**
+     * @return an unmodifiable map of the options names to their values, in the order in which they are declared in
+     * the config class
+     */
+    public Map<String, Object> asMap()
+    {
+        return values;
+    }
+}
@@ -0,0 +1,158 @@
+package fr.aeldit.cyanlib.lib.utils;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * A map of packed chunk positions ({@link net.minecraft.util.math.ChunkPos#toLong}) to lists of elements, which
+ * doesn't box the keys when reading, adding or removing entries.
+ * <p>
+ * The keys and buckets are stored in two parallel arrays, and a key is looked up by probing the slots that follow its
+ * hash. A slot is free when its bucket is {@code null}, because every long is a valid key (0 being the chunk 0, 0).
+ * It is not thread-safe
+ */
+final class ChunkBucketMap<P>
+{
+    private long[] keys = new long[16];
+    private Object[] buckets = new Object[16];
+    private int size;
+
+    /**
+     * The chunk X coordinate is in the low 32 bits of the key and the Z coordinate in the high ones, so the keys of
+     * neighbouring chunks only differ in a few bits. The multiplication spreads these bits over the high half of the
+     * product, which is kept, so that the players of a same area don't fill consecutive slots
+     */
+    private static int hash(long key)
+    {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32);
+    }
+
+    /**
+     * @return the slot of the key, or {@code -slot - 1} where {@code slot} is the free slot in which it would be added
+     */
+    private int indexOf(long key)
+    {
+        int mask = buckets.length - 1;
+        int i = hash(key) & mask;
+        while (buckets[i] != null)
+        {
+            if (keys[i] == key)
+            {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -i - 1;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable ArrayList<P> get(long key)
+    {
+        int i = indexOf(key);
+        return i < 0 ? null : (ArrayList<P>) buckets[i];
+    }
+
+    /**
+     * @return the list of the key, which is created if there is none
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull ArrayList<P> getOrCreate(long key)
+    {
+        int i = indexOf(key);
+        if (i >= 0)
+        {
+            return (ArrayList<P>) buckets[i];
+        }
+
+        i = -i - 1;
+        ArrayList<P> bucket = new ArrayList<>(2);
+        keys[i]    = key;
+        buckets[i] = bucket;
+        // The players only occupy a few hundred chunks at most, so the table can stay less than half full to keep
+        // the lookups of the spatial queries short
+        if (++size * 2 > buckets.length)
+        {
+            resize();
+        }
+        return bucket;
+    }
+
+    boolean remove(long key)
+    {
+        int i = indexOf(key);
+        if (i < 0)
+        {
+            return false;
+        }
+
+        // The chunks are removed each time their last player leaves them, so deleted slots marked as such would
+        // quickly fill the table. Instead, the following entries of the probe sequence are moved back into the hole
+        int mask = buckets.length - 1;
+        int j = i;
+        while (true)
+        {
+            j = (j + 1) & mask;
+            if (buckets[j] == null)
+            {
+                break;
+            }
+            int home = hash(keys[j]) & mask;
+            // The entry j can fill the hole at i only if it would still be found from its home slot, which is the
+            // case when the home isn't (cyclically) after the hole
+            if (i <= j ? (home <= i || home > j) : (home <= i && home > j))
+            {
+                keys[i]    = keys[j];
+                buckets[i] = buckets[j];
+                i          = j;
+            }
+        }
+        buckets[i] = null;
+        size--;
+        return true;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    @FunctionalInterface
+    interface BucketConsumer<P>
+    {
+        void accept(long key, @NotNull ArrayList<P> bucket);
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEach(@NotNull BucketConsumer<P> consumer)
+    {
+        for (int i = 0; i < buckets.length; i++)
+        {
+            if (buckets[i] != null)
+            {
+                consumer.accept(keys[i], (ArrayList<P>) buckets[i]);
+            }
+        }
+    }
+
+    private void resize()
+    {
+        long[] oldKeys = keys;
+        Object[] oldBuckets = buckets;
+
+        keys    = new long[oldBuckets.length * 2];
+        buckets = new Object[oldBuckets.length * 2];
+        for (int i = 0; i < oldBuckets.length; i++)
+        {
+            if (oldBuckets[i] != null)
+            {
+                // The key isn't in the new table yet, so the lookup gives the free slot in which it goes
+                int j = -indexOf(oldKeys[i]) - 1;
+                keys[j]    = oldKeys[i];
+                buckets[j] = oldBuckets[i];
+            }
+        }
+    }
+}
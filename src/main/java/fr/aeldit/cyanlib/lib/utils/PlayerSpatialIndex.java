@@ -0,0 +1,89 @@
+package fr.aeldit.cyanlib.lib.utils;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.math.Box;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.world.World;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An index of the online players, grouped by world and by chunk, used to find the players near a position without
+ * looking at every player of the server.
+ * <p>
+ * It is updated by CyanLib each time a player moves, joins, respawns or changes world, and when they leave. It must
+ * only be used from the server thread
+ */
+@SuppressWarnings("unused")
+public abstract class PlayerSpatialIndex
+{
+    private static final SpatialIndex<RegistryKey<World>, ServerPlayerEntity> index = new SpatialIndex<>(
+            new SpatialIndex.Position<>()
+            {
+                @Override
+                public double getX(ServerPlayerEntity player)
+                {
+                    return player.getX();
+                }
+
+                @Override
+                public double getY(ServerPlayerEntity player)
+                {
+                    return player.getY();
+                }
+
+                @Override
+                public double getZ(ServerPlayerEntity player)
+                {
+                    return player.getZ();
+                }
+            }
+    );
+
+    /**
+     * Called by CyanLib when the player moved, joined, respawned or changed world. It only modifies the index when the
+     * player entered another chunk
+     */
+    public static void update(@NotNull ServerPlayerEntity player)
+    {
+        // The entity of the player is replaced when they respawn on some versions
+        index.update(player.getUuid(), player, player.getWorld().getRegistryKey());
+    }
+
+    /**
+     * Called by CyanLib when the player leaves the server
+     */
+    public static void remove(@NotNull UUID playerUuid)
+    {
+        index.remove(playerUuid);
+    }
+
+    /**
+     * Called by CyanLib when the server stops
+     */
+    public static void clear()
+    {
+        index.clear();
+    }
+
+    /**
+     * @return the players of the world whose distance to the center is at most {@code radius} blocks
+     */
+    public static @NotNull List<ServerPlayerEntity> getPlayersInRadius(
+            @NotNull World world, @NotNull Vec3d center, double radius
+    )
+    {
+        return index.getInRadius(world.getRegistryKey(), center.x, center.y, center.z, radius);
+    }
+
+    /**
+     * @return the players of the world whose position is inside the box
+     */
+    public static @NotNull List<ServerPlayerEntity> getPlayersInBox(@NotNull World world, @NotNull Box box)
+    {
+        return index.getInBox(world.getRegistryKey(), box.minX, box.minY, box.minZ, box.maxX, box.maxY, box.maxZ);
+    }
+}
@@ -0,0 +1,211 @@
+package fr.aeldit.cyanlib.lib.utils;
+
+import net.minecraft.util.math.ChunkPos;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * The bookkeeping behind {@link PlayerSpatialIndex}: elements identified by a {@link UUID}, grouped by world (of type
+ * {@code W}) and by chunk. It is not thread-safe
+ */
+final class SpatialIndex<W, P>
+{
+    interface Position<P>
+    {
+        double getX(P element);
+
+        double getY(P element);
+
+        double getZ(P element);
+    }
+
+    private static final class Entry<W, P>
+    {
+        private P element;
+        private W world;
+        private long chunk;
+    }
+
+    private final Position<P> position;
+    private final HashMap<UUID, Entry<W, P>> entries = new HashMap<>();
+    private final HashMap<W, ChunkBucketMap<P>> worlds = new HashMap<>();
+
+    SpatialIndex(@NotNull Position<P> position)
+    {
+        this.position = position;
+    }
+
+    /**
+     * Only modifies the index when the element entered another chunk or world, or was replaced by another element
+     * with the same UUID
+     */
+    void update(@NotNull UUID uuid, @NotNull P element, @NotNull W world)
+    {
+        long chunk = ChunkPos.toLong(
+                (int) Math.floor(position.getX(element)) >> 4, (int) Math.floor(position.getZ(element)) >> 4
+        );
+
+        Entry<W, P> entry = entries.get(uuid);
+        if (entry == null)
+        {
+            entry = new Entry<>();
+            entries.put(uuid, entry);
+        }
+        else if (entry.element == element && entry.chunk == chunk && entry.world.equals(world))
+        {
+            return;
+        }
+        else
+        {
+            removeFromBucket(entry);
+        }
+
+        entry.element = element;
+        entry.world   = world;
+        entry.chunk   = chunk;
+        worlds.computeIfAbsent(world, key -> new ChunkBucketMap<>()).getOrCreate(chunk).add(element);
+    }
+
+    void remove(@NotNull UUID uuid)
+    {
+        Entry<W, P> entry = entries.remove(uuid);
+        if (entry != null)
+        {
+            removeFromBucket(entry);
+        }
+    }
+
+    void clear()
+    {
+        entries.clear();
+        worlds.clear();
+    }
+
+    private void removeFromBucket(@NotNull Entry<W, P> entry)
+    {
+        ChunkBucketMap<P> chunks = worlds.get(entry.world);
+        ArrayList<P> bucket = chunks.get(entry.chunk);
+        bucket.remove(entry.element);
+        if (bucket.isEmpty())
+        {
+            chunks.remove(entry.chunk);
+            if (chunks.size() == 0)
+            {
+                worlds.remove(entry.world);
+            }
+        }
+    }
+
+    /**
+     * @return the number of chunks containing at least one element in the world
+     */
+    int getOccupiedChunks(@NotNull W world)
+    {
+        ChunkBucketMap<P> chunks = worlds.get(world);
+        return chunks == null ? 0 : chunks.size();
+    }
+
+    /**
+     * @return the elements of the world whose distance to the center is at most {@code radius} blocks
+     */
+    @NotNull List<P> getInRadius(@NotNull W world, double x, double y, double z, double radius)
+    {
+        List<P> elements = new ArrayList<>();
+        double squaredRadius = radius * radius;
+        collect(
+                world, x - radius, z - radius, x + radius, z + radius, elements,
+                element -> {
+                    double dx = position.getX(element) - x;
+                    double dy = position.getY(element) - y;
+                    double dz = position.getZ(element) - z;
+                    return dx * dx + dy * dy + dz * dz <= squaredRadius;
+                }
+        );
+        return elements;
+    }
+
+    /**
+     * @return the elements of the world inside the box, whose maximum coordinates are excluded like in
+     * {@link net.minecraft.util.math.Box#contains(double, double, double)}
+     */
+    @NotNull List<P> getInBox(
+            @NotNull W world, double minX, double minY, double minZ, double maxX, double maxY, double maxZ
+    )
+    {
+        List<P> elements = new ArrayList<>();
+        collect(
+                world, minX, minZ, maxX, maxZ, elements,
+                element -> {
+                    double x = position.getX(element);
+                    double y = position.getY(element);
+                    double z = position.getZ(element);
+                    return x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ;
+                }
+        );
+        return elements;
+    }
+
+    /**
+     * Adds the elements of the chunks overlapping the given area that are accepted by the filter to the list
+     */
+    private void collect(
+            @NotNull W world, double minX, double minZ, double maxX, double maxZ,
+            @NotNull List<P> elements, @NotNull Predicate<P> filter
+    )
+    {
+        ChunkBucketMap<P> chunks = worlds.get(world);
+        if (chunks == null)
+        {
+            return;
+        }
+
+        int minChunkX = (int) Math.floor(minX) >> 4;
+        int minChunkZ = (int) Math.floor(minZ) >> 4;
+        int maxChunkX = (int) Math.floor(maxX) >> 4;
+        int maxChunkZ = (int) Math.floor(maxZ) >> 4;
+
+        // For large areas, looking at the occupied chunks is faster than looking at every chunk of the area
+        if (((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1) > chunks.size())
+        {
+            chunks.forEach((chunk, bucket) -> {
+                int chunkX = ChunkPos.getPackedX(chunk);
+                int chunkZ = ChunkPos.getPackedZ(chunk);
+                if (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ)
+                {
+                    addAccepted(bucket, elements, filter);
+                }
+            });
+            return;
+        }
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++)
+        {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++)
+            {
+                ArrayList<P> bucket = chunks.get(ChunkPos.toLong(chunkX, chunkZ));
+                if (bucket != null)
+                {
+                    addAccepted(bucket, elements, filter);
+                }
+            }
+        }
+    }
+
+    private static <P> void addAccepted(
+            @NotNull List<P> bucket, @NotNull List<P> elements, @NotNull Predicate<P> filter
+    )
+    {
+        for (P element : bucket)
+        {
+            if (filter.test(element))
+            {
+                elements.add(element);
+            }
+        }
+    }
+}
@@ -23,6 +23,7 @@ public abstract class LivingEntityMixin
         {
             MissingLivingEntityEvent.AFTER_DAMAGE.invoker()
                                                  .afterDamage((LivingEntity) (Object) this, source, amount);
+            MissingLivingEntityEvent.dispatch((LivingEntity) (Object) this, source, amount);
         }
     }
     *///?}
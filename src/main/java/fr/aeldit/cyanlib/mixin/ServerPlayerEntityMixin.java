@@ -1,17 +1,30 @@
 package fr.aeldit.cyanlib.mixin;
 
+import fr.aeldit.cyanlib.events.PlayerMoveState;
 import fr.aeldit.cyanlib.events.PlayerMovedEvent;
+import fr.aeldit.cyanlib.lib.ICyanLibPlayer;
+//? if <=1.20.1 {
+/*import net.minecraft.network.packet.c2s.play.ClientSettingsC2SPacket;
+ *///?} else {
+import net.minecraft.network.packet.c2s.common.SyncedClientOptions;
+//?}
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 @Mixin(ServerPlayerEntity.class)
-public abstract class ServerPlayerEntityMixin
+public abstract class ServerPlayerEntityMixin implements ICyanLibPlayer
 {
+    @Unique
+    private String cyanlib$language = "en_us";
+    @Unique
+    private final PlayerMoveState cyanlib$moveState = new PlayerMoveState();
+
     @Inject(method = "applyMovementEffects", at = @At("TAIL"))
     //? if <=1.20.6 {
     /*private void onPlayerMove(BlockPos pos, CallbackInfo ci)
@@ -19,6 +32,33 @@ public abstract class ServerPlayerEntityMixin
     private void onPlayerMove(ServerWorld world, BlockPos pos, CallbackInfo ci)
     //?}
     {
-        PlayerMovedEvent.AFTER_MOVE.invoker().afterMove((ServerPlayerEntity) (Object) this);
+        PlayerMovedEvent.onPlayerMoved((ServerPlayerEntity) (Object) this, pos, cyanlib$moveState);
+    }
+
+    //? if <=1.20.1 {
+    /*@Inject(method = "setClientSettings", at = @At("TAIL"))
+    private void onClientSettings(ClientSettingsC2SPacket packet, CallbackInfo ci)
+    {
+        cyanlib$language = packet.language();
+    }
+    *///?} else {
+    @Inject(method = "setClientOptions", at = @At("TAIL"))
+    private void onClientOptions(SyncedClientOptions clientOptions, CallbackInfo ci)
+    {
+        cyanlib$language = clientOptions.language();
+    }
+    //?}
+
+    // The player entity is recreated when the player respawns
+    @Inject(method = "copyFrom", at = @At("TAIL"))
+    private void onCopyFrom(ServerPlayerEntity oldPlayer, boolean alive, CallbackInfo ci)
+    {
+        cyanlib$language = ((ICyanLibPlayer) oldPlayer).cyanlib$getLanguage();
+    }
+
+    @Override
+    public String cyanlib$getLanguage()
+    {
+        return cyanlib$language;
     }
 }
@@ -0,0 +1,178 @@
+package fr.aeldit.cyanlib.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates, for each implementation of {@code ICyanLibConfig}, a registry listing its options, so that the
+ * {@code CyanLibOptionsStorage} doesn't need to find them with reflection at startup.
+ * <p>
+ * This processor doesn't depend on the classes of the library, so the names of the classes it uses are written here
+ */
+@SupportedAnnotationTypes("*")
+public class OptionRegistryProcessor extends AbstractProcessor
+{
+    private static final String CONFIG_INTERFACE = "fr.aeldit.cyanlib.lib.config.ICyanLibConfig";
+    private static final String REGISTRY_INTERFACE = "fr.aeldit.cyanlib.lib.config.ICyanLibOptionRegistry";
+    private static final String OPTION_INTERFACE = "fr.aeldit.cyanlib.lib.config.IOption";
+    private static final String BOOLEAN_OPTION = "fr.aeldit.cyanlib.lib.config.BooleanOption";
+    private static final String INTEGER_OPTION = "fr.aeldit.cyanlib.lib.config.IntegerOption";
+    // Must be the same as ICyanLibOptionRegistry.SUFFIX
+    private static final String SUFFIX = "_CyanLibOptions";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        TypeElement configInterface = processingEnv.getElementUtils().getTypeElement(CONFIG_INTERFACE);
+        // CyanLib is not on the classpath of the sources being compiled
+        if (configInterface == null)
+        {
+            return false;
+        }
+
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements()))
+        {
+            processType(type, configInterface.asType());
+        }
+        return false;
+    }
+
+    private void processType(TypeElement type, TypeMirror configInterface)
+    {
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements()))
+        {
+            processType(nested, configInterface);
+        }
+
+        if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT)
+            && processingEnv.getTypeUtils().isAssignable(type.asType(), configInterface)
+        )
+        {
+            // The generated registry is in the same package, so it can't reference the private classes
+            if (!isAccessibleFromPackage(type))
+            {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.NOTE,
+                        "No CyanLib option registry was generated for %s because it is private, its options will be "
+                        .concat("found with reflection")
+                        .formatted(type.getQualifiedName()),
+                        type
+                );
+                return;
+            }
+
+            try
+            {
+                writeRegistry(type, getOptionFields(type));
+            }
+            catch (IOException e)
+            {
+                processingEnv.getMessager().printMessage(
+                        Diagnostic.Kind.ERROR, "Could not generate the CyanLib option registry: " + e, type
+                );
+            }
+        }
+    }
+
+    /**
+     * @return whether neither the type nor one of the types enclosing it is private
+     */
+    private static boolean isAccessibleFromPackage(TypeElement type)
+    {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement())
+        {
+            if (element.getModifiers().contains(Modifier.PRIVATE))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the {@code public static final} option fields of the type, in their declaration order
+     */
+    private List<VariableElement> getOptionFields(TypeElement type)
+    {
+        TypeMirror booleanOption = processingEnv.getElementUtils().getTypeElement(BOOLEAN_OPTION).asType();
+        TypeMirror integerOption = processingEnv.getElementUtils().getTypeElement(INTEGER_OPTION).asType();
+        List<VariableElement> fields = new ArrayList<>();
+
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements()))
+        {
+            if (field.getModifiers().containsAll(Set.of(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL))
+                && (processingEnv.getTypeUtils().isAssignable(field.asType(), booleanOption)
+                    || processingEnv.getTypeUtils().isAssignable(field.asType(), integerOption))
+            )
+            {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    private void writeRegistry(TypeElement type, List<VariableElement> fields) throws IOException
+    {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String registryName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                              + SUFFIX;
+
+        StringBuilder options = new StringBuilder();
+        for (VariableElement field : fields)
+        {
+            options.append(options.isEmpty() ? "" : ",\n")
+                   .append("                ")
+                   .append(type.getQualifiedName())
+                   .append('.')
+                   .append(field.getSimpleName());
+        }
+
+        try (Writer writer = processingEnv.getFiler()
+                                          .createSourceFile(
+                                                  packageName.isEmpty() ? registryName
+                                                                        : packageName + "." + registryName,
+                                                  type
+                                          )
+                                          .openWriter()
+        )
+        {
+            if (!packageName.isEmpty())
+            {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("""
+                         @javax.annotation.processing.Generated("%s")
+                         public final class %s implements %s
+                         {
+                             @Override
+                             public java.util.List<%s<?>> getOptions()
+                             {
+                                 return java.util.List.of(
+                         %s
+                                 );
+                             }
+                         }
+                         """.formatted(
+                    getClass().getName(), registryName, REGISTRY_INTERFACE, OPTION_INTERFACE, options
+            ));
+        }
+    }
+}
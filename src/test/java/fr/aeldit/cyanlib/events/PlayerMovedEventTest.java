@@ -0,0 +1,141 @@
+package fr.aeldit.cyanlib.events;
+
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.World;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The events are global, so the listeners of the other tests are still registered. The player is null because it
+// can't be created outside a server, and isn't used by the variants
+class PlayerMovedEventTest
+{
+    private static void move(PlayerMoveState state, RegistryKey<World> world, double x, double y, double z)
+    {
+        BlockPos pos = new BlockPos((int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z));
+        PlayerMovedEvent.onPlayerMoved(null, world, pos, x, y, z, state);
+    }
+
+    @Test
+    void blockChangesSkipTheFirstPosition()
+    {
+        List<BlockPos[]> changes = new ArrayList<>();
+        PlayerMovedEvent.BLOCK_CHANGED.register((player, previous, current) -> changes.add(
+                new BlockPos[]{previous, current}
+        ));
+        PlayerMoveState state = new PlayerMoveState();
+
+        move(state, World.OVERWORLD, 0.5, 64, 0.5);
+        Assertions.assertTrue(changes.isEmpty());
+
+        move(state, World.OVERWORLD, 1.5, 64, 0.5);
+        Assertions.assertEquals(1, changes.size());
+        Assertions.assertEquals(new BlockPos(0, 64, 0), changes.get(0)[0]);
+        Assertions.assertEquals(new BlockPos(1, 64, 0), changes.get(0)[1]);
+    }
+
+    @Test
+    void chunkChangesGiveTheChunkCoordinates()
+    {
+        List<int[]> changes = new ArrayList<>();
+        PlayerMovedEvent.CHUNK_CHANGED.register((player, previousX, previousZ, currentX, currentZ) -> changes.add(
+                new int[]{previousX, previousZ, currentX, currentZ}
+        ));
+        PlayerMoveState state = new PlayerMoveState();
+
+        move(state, World.OVERWORLD, 0.5, 64, 0.5);
+        move(state, World.OVERWORLD, 15.5, 64, 0.5);
+        Assertions.assertTrue(changes.isEmpty());
+
+        move(state, World.OVERWORLD, 16.5, 64, 0.5);
+        move(state, World.OVERWORLD, 16.5, 64, -0.5);
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertArrayEquals(new int[]{0, 0, 1, 0}, changes.get(0));
+        Assertions.assertArrayEquals(new int[]{1, 0, 1, -1}, changes.get(1));
+    }
+
+    @Test
+    void distanceListenersRunOnceTheDistanceIsReached()
+    {
+        List<double[]> anchors = new ArrayList<>();
+        PlayerMovedEvent.registerDistance(5, (player, previousX, previousY, previousZ) -> anchors.add(
+                new double[]{previousX, previousY, previousZ}
+        ));
+        PlayerMoveState state = new PlayerMoveState();
+
+        move(state, World.OVERWORLD, 0, 64, 0);
+        move(state, World.OVERWORLD, 3, 64, 0);
+        Assertions.assertTrue(anchors.isEmpty());
+
+        // 4² + 3² = 5²
+        move(state, World.OVERWORLD, 4, 67, 0);
+        Assertions.assertEquals(1, anchors.size());
+        Assertions.assertArrayEquals(new double[]{0, 64, 0}, anchors.get(0));
+
+        // The distance is now measured from the position where the listener ran
+        move(state, World.OVERWORLD, 8, 67, 0);
+        Assertions.assertEquals(1, anchors.size());
+        move(state, World.OVERWORLD, 9, 67, 0);
+        Assertions.assertEquals(2, anchors.size());
+        Assertions.assertArrayEquals(new double[]{4, 67, 0}, anchors.get(1));
+    }
+
+    @Test
+    void changingWorldResetsThePositions()
+    {
+        List<BlockPos> blockChanges = new ArrayList<>();
+        List<int[]> chunkChanges = new ArrayList<>();
+        List<double[]> anchors = new ArrayList<>();
+        PlayerMovedEvent.BLOCK_CHANGED.register((player, previous, current) -> blockChanges.add(previous));
+        PlayerMovedEvent.CHUNK_CHANGED.register((player, previousX, previousZ, currentX, currentZ) -> chunkChanges.add(
+                new int[]{previousX, previousZ}
+        ));
+        PlayerMovedEvent.registerDistance(10, (player, previousX, previousY, previousZ) -> anchors.add(
+                new double[]{previousX, previousY, previousZ}
+        ));
+        PlayerMoveState state = new PlayerMoveState();
+
+        move(state, World.OVERWORLD, 0, 64, 0);
+        move(state, World.NETHER, 100, 64, 0);
+        Assertions.assertTrue(blockChanges.isEmpty());
+        Assertions.assertTrue(chunkChanges.isEmpty());
+        Assertions.assertTrue(anchors.isEmpty());
+
+        move(state, World.NETHER, 120, 64, 0);
+        Assertions.assertEquals(1, blockChanges.size());
+        Assertions.assertEquals(new BlockPos(100, 64, 0), blockChanges.get(0));
+        Assertions.assertEquals(1, chunkChanges.size());
+        Assertions.assertArrayEquals(new int[]{6, 0}, chunkChanges.get(0));
+        Assertions.assertEquals(1, anchors.size());
+        Assertions.assertArrayEquals(new double[]{100, 64, 0}, anchors.get(0));
+    }
+
+    @Test
+    void batchedPlayersAreGivenOncePerTick()
+    {
+        List<Integer> sizes = new ArrayList<>();
+        PlayerMovedEvent.registerBatched(players -> sizes.add(players.size()));
+        // Gives the players who moved in the other tests
+        PlayerMovedEvent.onServerTickEnd();
+        sizes.clear();
+
+        PlayerMoveState first = new PlayerMoveState();
+        PlayerMoveState second = new PlayerMoveState();
+        move(first, World.OVERWORLD, 0, 64, 0);
+        move(first, World.OVERWORLD, 1, 64, 0);
+        move(second, World.OVERWORLD, 0, 64, 0);
+        PlayerMovedEvent.onServerTickEnd();
+        Assertions.assertEquals(List.of(2), sizes);
+
+        // Nobody moved during this tick
+        PlayerMovedEvent.onServerTickEnd();
+        Assertions.assertEquals(List.of(2), sizes);
+
+        move(first, World.OVERWORLD, 2, 64, 0);
+        PlayerMovedEvent.onServerTickEnd();
+        Assertions.assertEquals(List.of(2, 1), sizes);
+    }
+}
@@ -0,0 +1,213 @@
+package fr.aeldit.cyanlib.lib;
+
+import fr.aeldit.cyanlib.events.CombatEvents;
+import fr.aeldit.cyanlib.lib.config.IntegerOption;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+class CombatTrackingTest
+{
+    private final UUID player = UUID.randomUUID();
+    private long ticks = 1000;
+
+    private final List<String> events = new ArrayList<>();
+    private final CombatEvents.Entered onEntered = uuid -> {
+        if (uuid.equals(player))
+        {
+            events.add("entered@%d".formatted(ticks));
+        }
+    };
+    private final CombatEvents.Left onLeft = uuid -> {
+        if (uuid.equals(player))
+        {
+            events.add("left@%d".formatted(ticks));
+        }
+    };
+
+    @BeforeEach
+    void registerListeners()
+    {
+        CombatEvents.ENTERED.register(onEntered);
+        CombatEvents.LEFT.register(onLeft);
+    }
+
+    @AfterEach
+    void resetClock()
+    {
+        CombatTracking.removePlayerOnPlayerQuit(player);
+        CombatTracking.setClock(CombatTracking.TICK_CLOCK);
+    }
+
+    private void tickUntil(long tick)
+    {
+        while (ticks < tick)
+        {
+            ticks++;
+            CombatTracking.onServerTickEnd();
+        }
+    }
+
+    @Test
+    void combatEndsAfterTheTimeout()
+    {
+        CombatTracking.setClock(() -> ticks);
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player, 100));
+
+        CombatTracking.addEntry(player);
+        ticks += 99;
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player, 100));
+        ticks++;
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player, 100));
+    }
+
+    @Test
+    void newHitsExtendTheCombat()
+    {
+        CombatTracking.setClock(() -> ticks);
+
+        CombatTracking.addEntry(player);
+        ticks += 50;
+        CombatTracking.addEntry(player);
+        ticks += 60;
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player, 100));
+    }
+
+    @Test
+    void tickClockIsAdvancedByTheServerTicks()
+    {
+        CombatTracking.addEntry(player);
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player, 1));
+
+        CombatTracking.onServerTick();
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player, 1));
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player, 2));
+    }
+
+    @Test
+    void combatExpiresAndNotifies()
+    {
+        CombatTracking.setClock(() -> ticks);
+        CombatTracking.onServerTickEnd();
+
+        CombatTracking.addEntry(player, 100);
+        tickUntil(1050);
+        CombatTracking.addEntry(player, 100);
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player));
+        tickUntil(1149);
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player));
+        tickUntil(1150);
+
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player));
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player, 1000));
+        Assertions.assertEquals(List.of("entered@1000", "left@1150"), events);
+    }
+
+    @Test
+    void longCombatsStayInTheWheel()
+    {
+        CombatTracking.setClock(() -> ticks);
+        CombatTracking.onServerTickEnd();
+
+        CombatTracking.addEntry(player, 2000);
+        tickUntil(2999);
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player));
+        Assertions.assertEquals(List.of("entered@1000"), events);
+
+        // Skips many ticks at once
+        ticks = 5000;
+        CombatTracking.onServerTickEnd();
+        Assertions.assertEquals(List.of("entered@1000", "left@5000"), events);
+    }
+
+    @Test
+    void quittingLeavesTheCombatOnce()
+    {
+        CombatTracking.setClock(() -> ticks);
+        CombatTracking.onServerTickEnd();
+
+        CombatTracking.addEntry(player, 10);
+        CombatTracking.removePlayerOnPlayerQuit(player);
+        tickUntil(1100);
+
+        Assertions.assertEquals(List.of("entered@1000", "left@1000"), events);
+    }
+
+    @Test
+    void hitsArePairedWithTheirAttacker()
+    {
+        UUID attacker = UUID.randomUUID();
+        CombatTracking.setClock(() -> ticks);
+        CombatHandle shortCombat = CombatTracking.getHandle("short", 100);
+        CombatHandle longCombat = CombatTracking.getHandle("long", 2000);
+
+        CombatTracking.recordHit(player, attacker);
+        ticks += 100;
+        Assertions.assertFalse(shortCombat.isInCombat(attacker));
+        Assertions.assertNull(shortCombat.getLastAttacker(player));
+        Assertions.assertTrue(longCombat.isInCombat(player));
+        Assertions.assertTrue(longCombat.isInCombat(attacker));
+        Assertions.assertEquals(attacker, longCombat.getLastAttacker(player));
+        Assertions.assertTrue(longCombat.isInCombatWith(attacker, player));
+        Assertions.assertNull(longCombat.getLastAttacker(attacker));
+
+        // The combat lasts as long as the longest handle needs
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player));
+        ticks += 1900;
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player));
+
+        CombatTracking.removePlayerOnPlayerQuit(attacker);
+        ticks = 1000;
+        Assertions.assertTrue(longCombat.isInCombatWith(player, attacker));
+        CombatTracking.removePlayerOnPlayerQuit(player);
+        Assertions.assertFalse(longCombat.isInCombatWith(player, attacker));
+    }
+
+    @Test
+    void hitsFollowTheLongestTimeoutOption()
+    {
+        CombatTracking.setClock(() -> ticks);
+        // Longer than the timeouts of the other tests, in seconds
+        IntegerOption timeout = new IntegerOption("timeout", 1000);
+        CombatTracking.getHandle("option%d".formatted(ticks), timeout);
+        CombatTracking.getHandle("option%d".formatted(ticks), timeout);
+
+        timeout.setInt(2000);
+        CombatTracking.recordHit(player, null);
+        tickUntil(ticks + 1500 * 20);
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(player));
+        tickUntil(ticks + 500 * 20);
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player));
+
+        // The handle doesn't keep the duration longer once the option is back to a shorter timeout
+        timeout.setInt(1);
+        CombatTracking.recordHit(player, null);
+        tickUntil(ticks + 1000 * 20);
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(player));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void entriesAddedByNameAreKeptUntilThePlayerQuits()
+    {
+        String name = "player%d".formatted(ticks);
+        IntegerOption timeout = new IntegerOption("timeout", 120);
+
+        // The first query happens more than 60 seconds after the hit, with a timeout of 120 seconds
+        CombatTracking.addEntry(name, System.currentTimeMillis() - 90_000);
+        for (int i = 0; i < 100; i++)
+        {
+            CombatTracking.onServerTickEnd();
+        }
+        Assertions.assertTrue(CombatTracking.isPlayerInCombat(name, timeout));
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(name, new IntegerOption("timeout", 60)));
+
+        CombatTracking.removePlayerOnPlayerQuit(name);
+        Assertions.assertFalse(CombatTracking.isPlayerInCombat(name, timeout));
+    }
+}
@@ -0,0 +1,100 @@
+package fr.aeldit.cyanlib.lib;
+
+import net.minecraft.text.Text;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class CyanLibLanguageUtilsTest
+{
+    @Test
+    void handleIsResolved()
+    {
+        CyanLibLanguageUtils.setTranslations("handles", Map.of("msg.hello", "Hello %s"));
+        TranslationHandle handle = CyanLibLanguageUtils.getHandle("handles", "msg.hello");
+
+        Assertions.assertEquals("Hello %s", handle.getTranslation());
+        Assertions.assertSame(handle, new CyanLibLanguageUtils("handles").getHandle("msg.hello"));
+    }
+
+    @Test
+    void handleIsRefreshedOnReload()
+    {
+        CyanLibLanguageUtils.setTranslations("reloaded", Map.of("msg.hello", "Hello"));
+        TranslationHandle handle = CyanLibLanguageUtils.getHandle("reloaded", "msg.hello");
+        TranslationHandle missing = CyanLibLanguageUtils.getHandle("reloaded", "msg.bye");
+
+        Assertions.assertEquals(
+                "The translation key 'msg.bye' doesn't exist for the mod reloaded", missing.getTranslation()
+        );
+
+        CyanLibLanguageUtils.setTranslations("reloaded", Map.of("msg.hello", "Bonjour", "msg.bye", "Au revoir"));
+        Assertions.assertEquals("Bonjour", handle.getTranslation());
+        Assertions.assertEquals("Au revoir", missing.getTranslation());
+    }
+
+    @Test
+    void handleCanBeObtainedBeforeTheTranslationsAreLoaded()
+    {
+        TranslationHandle handle = CyanLibLanguageUtils.getHandle("notLoadedYet", "msg.hello");
+        CyanLibLanguageUtils.setTranslations("notLoadedYet", Map.of("msg.hello", "Hello"));
+
+        Assertions.assertEquals("Hello", handle.getTranslation());
+    }
+
+    @Test
+    void readersNeverSeeAPartialReload() throws Exception
+    {
+        Map<String, String> first = Map.of("msg.a", "1", "msg.b", "1");
+        Map<String, String> second = Map.of("msg.a", "2", "msg.b", "2");
+        CyanLibLanguageUtils.setTranslations("atomic", first);
+        TranslationHandle handle = CyanLibLanguageUtils.getHandle("atomic", "msg.b");
+
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reloader = new Thread(() -> {
+            for (int i = 0; i < 10_000; i++)
+            {
+                CyanLibLanguageUtils.setTranslations("atomic", i % 2 == 0 ? second : first);
+            }
+            done.set(true);
+        });
+        reloader.start();
+        ModTranslations translations = CyanLibLanguageUtils.getModTranslations("atomic");
+        while (!done.get())
+        {
+            String translation = handle.getTranslation();
+            Assertions.assertTrue(translation.equals("1") || translation.equals("2"), translation);
+
+            // Both keys come from the same version of the translations
+            TranslationTable table = translations.getTable();
+            Assertions.assertEquals(table.get("msg.a"), table.get("msg.b"));
+        }
+        reloader.join();
+
+        Assertions.assertEquals("1", handle.getTranslation());
+    }
+
+    @Test
+    void broadcastsBuildOneTextPerLanguage()
+    {
+        CyanLibLanguageUtils.setTranslations("broadcast", Map.of("msg.hello", "Hello %s"));
+        TranslationHandle handle = CyanLibLanguageUtils.getHandle("broadcast", "msg.hello");
+        // The recipients are named <name>:<language>
+        List<String> players = List.of("a:en_us", "b:fr_fr", "c:en_us", "d:en_us", "e:fr_fr");
+
+        Map<String, Text> received = new LinkedHashMap<>();
+        CyanLibLanguageUtils.forEachLanguage(
+                players, player -> !player.startsWith("d"), player -> player.split(":")[1], handle,
+                new Object[]{"Steve"}, received::put
+        );
+
+        Assertions.assertEquals(List.of("a:en_us", "b:fr_fr", "c:en_us", "e:fr_fr"), List.copyOf(received.keySet()));
+        Assertions.assertSame(received.get("a:en_us"), received.get("c:en_us"));
+        Assertions.assertSame(received.get("b:fr_fr"), received.get("e:fr_fr"));
+        Assertions.assertNotSame(received.get("a:en_us"), received.get("b:fr_fr"));
+    }
+}
@@ -0,0 +1,77 @@
+package fr.aeldit.cyanlib.lib;
+
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+import net.minecraft.text.TranslatableTextContent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class MessageTemplateTest
+{
+    @Test
+    void formatsPlaceholders()
+    {
+        Assertions.assertEquals("Hello Steve!", new MessageTemplate("Hello %s!").format("Steve"));
+        Assertions.assertEquals("b a", new MessageTemplate("%2$s %1$s").format("a", "b"));
+        Assertions.assertEquals("100% of 3", new MessageTemplate("100%% of %s").format(3));
+        Assertions.assertEquals("§aOn", new MessageTemplate("§aOn").format());
+    }
+
+    @Test
+    void invalidTemplatesAreKeptAsIs()
+    {
+        Assertions.assertEquals("%d players", new MessageTemplate("%d players").format(3));
+        Assertions.assertEquals("Trailing %", new MessageTemplate("Trailing %").format());
+        Assertions.assertEquals("Missing %s", new MessageTemplate("Missing %s").format());
+        Assertions.assertEquals("%0$s", new MessageTemplate("%0$s").format("a"));
+    }
+
+    @Test
+    void textsAreTranslatable()
+    {
+        Text text = new MessageTemplate("Hello %s").toText("Steve");
+
+        // The clients having the lang file of the mod can translate it themselves
+        TranslatableTextContent content = (TranslatableTextContent) text.getContent();
+        Assertions.assertEquals("Hello %s", content.getKey());
+        Assertions.assertArrayEquals(new Object[]{"Steve"}, content.getArgs());
+    }
+
+    @Test
+    void textsAreCached()
+    {
+        MessageTemplate template = new MessageTemplate("Hello %s, you have %s homes");
+
+        Assertions.assertSame(template.toText("Steve", 3).getContent(), template.toText("Steve", 3).getContent());
+        Assertions.assertNotSame(template.toText("Steve", 3).getContent(), template.toText("Alex", 3).getContent());
+        // Mutable arguments are never cached
+        StringBuilder name = new StringBuilder("Steve");
+        Assertions.assertNotSame(template.toText(name, 3).getContent(), template.toText(name, 3).getContent());
+
+        MessageTemplate noArgs = new MessageTemplate("Hello");
+        Assertions.assertSame(noArgs.toText().getContent(), noArgs.toText().getContent());
+    }
+
+    @Test
+    void cachedTextsCanBeModified()
+    {
+        MessageTemplate template = new MessageTemplate("Hello");
+        MutableText text = template.toText();
+        text.append("!");
+
+        Assertions.assertNotSame(text, template.toText());
+        Assertions.assertEquals("Hello", template.toText().getString());
+    }
+
+    @Test
+    void argsCacheIsBounded()
+    {
+        MessageTemplate template = new MessageTemplate("%s");
+        Object first = template.toText(0).getContent();
+        for (int i = 1; i <= 16; i++)
+        {
+            template.toText(i);
+        }
+        Assertions.assertNotSame(first, template.toText(0).getContent());
+    }
+}
@@ -0,0 +1,135 @@
+package fr.aeldit.cyanlib.lib;
+
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.text.TranslatableTextContent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+class ModTranslationsTest
+{
+    private static void writePack(String modid, String language, String content) throws IOException
+    {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(modid).resolve("lang").resolve(
+                "%s.json".formatted(language)
+        );
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+
+    @Test
+    void localePacksAreLoadedLazily() throws IOException
+    {
+        ModTranslations translations = new ModTranslations("packs");
+        writePack("packs", "fr_fr", "{\"language.code\": \"fr_fr\", \"msg.hello\": \"Bonjour\"}");
+        translations.setTable(TranslationTable.of(Map.of("msg.hello", "Hello", "msg.bye", "Bye")));
+
+        ModTranslations.LocalePack pack = translations.getLocalePack("fr_fr");
+        Assertions.assertNotNull(pack.table());
+        Assertions.assertEquals("Bonjour", pack.table().get("msg.hello"));
+        Assertions.assertSame(pack, translations.getLocalePack("fr_fr"));
+        Assertions.assertNull(translations.getLocalePack("de_de").table());
+    }
+
+    @Test
+    void handlesUseThePackAndFallBackToTheDefaults() throws IOException
+    {
+        writePack("handlePacks", "fr_fr", "{\"msg.hello\": \"Bonjour\"}");
+        ModTranslations translations = new ModTranslations("handlePacks");
+        translations.setTable(TranslationTable.of(Map.of("msg.hello", "Hello", "msg.bye", "Bye")));
+
+        TranslationHandle bye = translations.getHandle("msg.bye");
+        Assertions.assertSame(bye.getText().getContent(), bye.getLocalizedText("fr_fr").getContent());
+        Assertions.assertSame(bye.getText().getContent(), bye.getLocalizedText("en_us").getContent());
+        Assertions.assertNotSame(
+                translations.getHandle("msg.hello").getText().getContent(),
+                translations.getHandle("msg.hello").getLocalizedText("fr_fr").getContent()
+        );
+    }
+
+    @Test
+    void packsAreReloadedWithTheTranslations() throws IOException
+    {
+        writePack("reloadedPacks", "fr_fr", "{\"msg.hello\": \"Bonjour\"}");
+        ModTranslations translations = new ModTranslations("reloadedPacks");
+        ModTranslations.LocalePack pack = translations.getLocalePack("fr_fr");
+
+        writePack("reloadedPacks", "fr_fr", "{\"msg.hello\": \"Salut\"}");
+        Assertions.assertSame(pack, translations.getLocalePack("fr_fr"));
+
+        translations.setTable(TranslationTable.of(Map.of("msg.hello", "Hello")));
+        ModTranslations.LocalePack reloaded = translations.getLocalePack("fr_fr");
+        Assertions.assertNotSame(pack, reloaded);
+        Assertions.assertNotNull(reloaded.table());
+        Assertions.assertEquals("Salut", reloaded.table().get("msg.hello"));
+    }
+
+    @Test
+    void invalidLanguagesAreIgnored() throws IOException
+    {
+        writePack("invalidPacks", "broken", "{\"msg.hello\": ");
+        ModTranslations translations = new ModTranslations("invalidPacks");
+
+        Assertions.assertNull(translations.getLocalePack("../../invalidPacks/lang/broken").table());
+        Assertions.assertNull(translations.getLocalePack("broken").table());
+    }
+
+    @Test
+    void packsAreListedOnReload() throws IOException
+    {
+        ModTranslations translations = new ModTranslations("listedPacks");
+        writePack("listedPacks", "fr_fr", "{\"msg.hello\": \"Bonjour\"}");
+        Assertions.assertNull(translations.getLocalePack("fr_fr").table());
+
+        translations.setTable(TranslationTable.of(Map.of("msg.hello", "Hello")));
+        Assertions.assertNotNull(translations.getLocalePack("fr_fr").table());
+    }
+
+    @Test
+    void languagesWithoutPackDontEvictThePacks() throws IOException
+    {
+        writePack("evictedPacks", "fr_fr", "{\"msg.hello\": \"Bonjour\"}");
+        ModTranslations translations = new ModTranslations("evictedPacks");
+        ModTranslations.LocalePack pack = translations.getLocalePack("fr_fr");
+
+        for (int i = 0; i < 100; i++)
+        {
+            Assertions.assertNull(translations.getLocalePack("lang_%d".formatted(i)).table());
+        }
+        Assertions.assertSame(pack, translations.getLocalePack("fr_fr"));
+    }
+
+    @Test
+    void packTemplatesAreDroppedWithThePack() throws IOException
+    {
+        for (int i = 0; i <= 8; i++)
+        {
+            writePack("templatePacks", "lang_%d".formatted(i), "{\"msg.hello\": \"Hello %d\"}".formatted(i));
+        }
+        ModTranslations translations = new ModTranslations("templatePacks");
+        translations.setTable(TranslationTable.of(Map.of("msg.hello", "Hello", "msg.bye", "Bye")));
+        ModTranslations.LocalePack pack = translations.getLocalePack("lang_0");
+
+        MessageTemplate template = pack.getTemplate("msg.hello");
+        Assertions.assertSame(template, pack.getTemplate("msg.hello"));
+        Assertions.assertNull(pack.getTemplate("msg.bye"));
+        Assertions.assertEquals(
+                "Hello 0",
+                ((TranslatableTextContent) translations.getHandle("msg.hello").getLocalizedText("lang_0").getContent())
+                        .getKey()
+        );
+
+        // The other packs push it out of the cache, and nothing else keeps its templates
+        for (int i = 1; i <= 8; i++)
+        {
+            translations.getHandle("msg.hello").getLocalizedText("lang_%d".formatted(i));
+        }
+        ModTranslations.LocalePack reloaded = translations.getLocalePack("lang_0");
+        Assertions.assertNotSame(pack, reloaded);
+        Assertions.assertNotSame(template, reloaded.getTemplate("msg.hello"));
+    }
+}
@@ -0,0 +1,117 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.zip.CRC32C;
+
+class TranslationBundleTest
+{
+    // "Aa" and "BB" have the same hash
+    private static final String JSON = """
+            {"msg.hello": "Bonjour %s", "Aa": "1", "BB": "2", "msg.é": "§aé"}""";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void bundleIsWrittenOnFirstLoadAndReadAfter() throws IOException
+    {
+        Path json = dir.resolve("custom_lang.json");
+        Files.writeString(json, JSON);
+
+        TranslationTable parsed = TranslationBundle.load(json);
+        Path bundle = TranslationBundle.bundlePath(json);
+        Assertions.assertTrue(Files.exists(bundle));
+        Assertions.assertTrue(bundle.startsWith(TranslationBundle.cacheDir()));
+        try (var files = Files.list(dir))
+        {
+            Assertions.assertEquals(1, files.count());
+        }
+
+        TranslationBundle.Bundle read = TranslationBundle.read(bundle);
+        Assertions.assertNotNull(read);
+        Assertions.assertEquals(Files.getLastModifiedTime(json).toMillis(), read.lastModified());
+        Assertions.assertEquals(Files.size(json), read.jsonSize());
+        Assertions.assertEquals(checksumOf(json), read.jsonHash());
+        Assertions.assertEquals(parsed.toMap(), read.table().toMap());
+        Assertions.assertEquals("§aé", read.table().get("msg.é"));
+        Assertions.assertEquals("2", read.table().get("BB"));
+    }
+
+    @Test
+    void touchedFileKeepsItsBundle() throws IOException
+    {
+        Path json = dir.resolve("custom_lang.json");
+        Files.writeString(json, JSON);
+        TranslationBundle.load(json);
+
+        FileTime touched = FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() + 1000);
+        Files.setLastModifiedTime(json, touched);
+        Assertions.assertEquals("Bonjour %s", TranslationBundle.load(json).get("msg.hello"));
+        // The bundle is rewritten with the new modification time, so the JSON won't be hashed on the next load
+        Assertions.assertEquals(
+                touched.toMillis(), TranslationBundle.read(TranslationBundle.bundlePath(json)).lastModified()
+        );
+    }
+
+    @Test
+    void bundleIsInvalidatedByModifications() throws IOException
+    {
+        Path json = dir.resolve("custom_lang.json");
+        Files.writeString(json, JSON);
+        TranslationBundle.load(json);
+
+        Files.writeString(json, "{\"msg.hello\": \"Salut %s\"}");
+        Files.setLastModifiedTime(json, FileTime.fromMillis(Files.getLastModifiedTime(json).toMillis() + 1000));
+        TranslationTable table = TranslationBundle.load(json);
+        Assertions.assertEquals(1, table.size());
+        Assertions.assertEquals("Salut %s", table.get("msg.hello"));
+
+        // Same modification time, but a different size
+        FileTime lastModified = Files.getLastModifiedTime(json);
+        Files.writeString(json, "{\"msg.hello\": \"Coucou %s\"}");
+        Files.setLastModifiedTime(json, lastModified);
+        Assertions.assertEquals("Coucou %s", TranslationBundle.load(json).get("msg.hello"));
+    }
+
+    @Test
+    void corruptedBundleIsIgnored() throws IOException
+    {
+        Path json = dir.resolve("custom_lang.json");
+        Files.writeString(json, JSON);
+        TranslationBundle.load(json);
+
+        Path bundle = TranslationBundle.bundlePath(json);
+        byte[] bytes = Files.readAllBytes(bundle);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(bundle, bytes);
+        Assertions.assertNull(TranslationBundle.read(bundle));
+        Assertions.assertEquals("Bonjour %s", TranslationBundle.load(json).get("msg.hello"));
+
+        Files.write(bundle, new byte[]{1, 2, 3});
+        Assertions.assertEquals("Bonjour %s", TranslationBundle.load(json).get("msg.hello"));
+    }
+
+    @Test
+    void emptyFile() throws IOException
+    {
+        Path json = dir.resolve("custom_lang.json");
+        Files.writeString(json, "");
+
+        Assertions.assertEquals(0, TranslationBundle.load(json).size());
+        Assertions.assertEquals(0, TranslationBundle.load(json).size());
+    }
+
+    private static int checksumOf(Path path) throws IOException
+    {
+        CRC32C crc = new CRC32C();
+        crc.update(Files.readAllBytes(path));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,96 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class TranslationTableTest
+{
+    private static final int MODS = 30;
+
+    private static HashMap<String, String> translations(String modid)
+    {
+        HashMap<String, String> translations = new HashMap<>();
+        for (int i = 0; i < 40; i++)
+        {
+            // Built at runtime, like the strings read from the custom_lang.json files. The first half of the keys
+            // and values are the same for every mod
+            translations.put("msg.getCfg.option%d".formatted(i), "§6- §3Option %d: %%s".formatted(i));
+            translations.put("msg.%s.message%d".formatted(modid, i), "Message %d of %s".formatted(i, modid));
+        }
+        return translations;
+    }
+
+    @Test
+    void lookups()
+    {
+        // "Aa" and "BB" have the same hash
+        TranslationTable table = TranslationTable.of(Map.of("Aa", "1", "BB", "2", "msg.hello", "Hello"));
+
+        Assertions.assertEquals(3, table.size());
+        Assertions.assertEquals("1", table.get("Aa"));
+        Assertions.assertEquals("2", table.get("BB"));
+        Assertions.assertEquals("Hello", table.get("msg.hello"));
+        Assertions.assertNull(table.get("C#"));
+        Assertions.assertNull(table.get("msg.missing"));
+    }
+
+    @Test
+    void keysSharingAPrefix()
+    {
+        TranslationTable table = TranslationTable.of(Map.of(
+                "msg.getCfg.header", "Header", "msg.getCfg.option", "Option", "error.notOp", "Not OP", "noDot", "1",
+                ".", "2"
+        ));
+
+        Assertions.assertEquals("Header", table.get("msg.getCfg.header"));
+        Assertions.assertEquals("Option", table.get("msg.getCfg.option"));
+        Assertions.assertEquals("Not OP", table.get("error.notOp"));
+        Assertions.assertEquals("1", table.get("noDot"));
+        Assertions.assertEquals("2", table.get("."));
+        Assertions.assertNull(table.get("msg.getCfg."));
+        Assertions.assertNull(table.get("msg.getCfg.headers"));
+        Assertions.assertNull(table.get("error.notO"));
+        Assertions.assertEquals(
+                Map.of(
+                        "msg.getCfg.header", "Header", "msg.getCfg.option", "Option", "error.notOp", "Not OP",
+                        "noDot", "1", ".", "2"
+                ),
+                table.toMap()
+        );
+    }
+
+    @Test
+    void nullValuesAreIgnored()
+    {
+        HashMap<String, String> translations = new HashMap<>();
+        translations.put("msg.hello", null);
+
+        Assertions.assertNull(TranslationTable.of(translations).get("msg.hello"));
+    }
+
+    @Test
+    void tablesAreSmallerThanMaps()
+    {
+        Object[] maps = new Object[MODS];
+        Object[] tables = new Object[MODS];
+        for (int i = 0; i < MODS; i++)
+        {
+            HashMap<String, String> translations = translations("mod%d".formatted(i));
+            maps[i]   = translations;
+            tables[i] = TranslationTable.of(translations("mod%d".formatted(i)));
+        }
+
+        // Both measures include every string held by the maps and the tables, which are built from distinct strings
+        long mapsSize = GraphLayout.parseInstance(maps).totalSize();
+        long tablesSize = GraphLayout.parseInstance(tables).totalSize();
+        // The tables have no Node objects, store each prefix of the keys once, and don't need a String per key
+        Assertions.assertTrue(
+                tablesSize * 10 <= mapsSize * 7,
+                "%d bytes in TranslationTables for %d bytes in HashMaps".formatted(tablesSize, mapsSize)
+        );
+    }
+}
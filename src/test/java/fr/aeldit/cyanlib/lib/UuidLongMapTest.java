@@ -0,0 +1,105 @@
+package fr.aeldit.cyanlib.lib;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+class UuidLongMapTest
+{
+    @Test
+    void putGetRemove()
+    {
+        UuidLongMap map = new UuidLongMap();
+        UUID uuid = UUID.randomUUID();
+
+        Assertions.assertEquals(-1, map.get(uuid, -1));
+        map.put(uuid, 42);
+        map.put(uuid, 43);
+        Assertions.assertEquals(43, map.get(uuid, -1));
+        Assertions.assertEquals(1, map.size());
+
+        Assertions.assertTrue(map.remove(uuid));
+        Assertions.assertFalse(map.remove(uuid));
+        Assertions.assertEquals(-1, map.get(uuid, -1));
+        Assertions.assertEquals(0, map.size());
+    }
+
+    @Test
+    void entriesWithSeveralValues()
+    {
+        UuidLongMap map = new UuidLongMap(3);
+        UUID uuid = UUID.randomUUID();
+        long[] values = {-1, -1, -1};
+
+        Assertions.assertFalse(map.get(uuid, values));
+        Assertions.assertEquals(-1, values[0]);
+        map.put(uuid, 1, 2, 3);
+        Assertions.assertTrue(map.get(uuid, values));
+        Assertions.assertEquals(List.of(1L, 2L, 3L), List.of(values[0], values[1], values[2]));
+        Assertions.assertEquals(1, map.get(uuid, -1));
+
+        // The values follow their entry when the map grows and when other entries are removed
+        List<UUID> others = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+        {
+            UUID other = UUID.randomUUID();
+            others.add(other);
+            map.put(other, i, i * 2L, i * 3L);
+        }
+        for (int i = 0; i < 1000; i += 2)
+        {
+            Assertions.assertTrue(map.remove(others.get(i)));
+        }
+        for (int i = 1; i < 1000; i += 2)
+        {
+            Assertions.assertTrue(map.get(others.get(i), values));
+            Assertions.assertEquals(List.of((long) i, i * 2L, i * 3L), List.of(values[0], values[1], values[2]));
+        }
+        Assertions.assertTrue(map.get(uuid, values));
+        Assertions.assertEquals(3, values[2]);
+        Assertions.assertEquals(501, map.size());
+    }
+
+    @Test
+    void zeroUuidIsAValidKey()
+    {
+        UuidLongMap map = new UuidLongMap();
+        map.put(new UUID(0, 0), 0);
+
+        Assertions.assertEquals(0, map.get(new UUID(0, 0), -1));
+    }
+
+    @Test
+    void matchesAHashMap()
+    {
+        // Sequential UUIDs collide a lot more than random ones
+        Random random = new Random(1);
+        UuidLongMap map = new UuidLongMap();
+        HashMap<UUID, Long> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++)
+        {
+            UUID uuid = new UUID(random.nextInt(64), random.nextInt(64));
+            if (random.nextInt(3) == 0)
+            {
+                Assertions.assertEquals(expected.remove(uuid) != null, map.remove(uuid));
+            }
+            else
+            {
+                expected.put(uuid, (long) i);
+                map.put(uuid, i);
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+        for (Map.Entry<UUID, Long> entry : expected.entrySet())
+        {
+            Assertions.assertEquals(entry.getValue().longValue(), map.get(entry.getKey(), -1));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+class AtomicConfigFilesTest
+{
+    private static final String ORIGINAL = "{\"enabled\": true}";
+    private static final String UPDATED = "{\"enabled\": false, \"distance\": 25}";
+
+    @TempDir
+    Path dir;
+
+    private static void writeString(Path path, String content) throws IOException
+    {
+        AtomicConfigFiles.writeWithBackup(path, out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private long countTempFiles() throws IOException
+    {
+        try (Stream<Path> files = Files.list(dir))
+        {
+            return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).count();
+        }
+    }
+
+    @Test
+    void writeReplacesContentAndBackup() throws IOException
+    {
+        Path path = dir.resolve("mod.json");
+        writeString(path, ORIGINAL);
+        writeString(path, UPDATED);
+
+        Assertions.assertEquals(UPDATED, Files.readString(path));
+        Assertions.assertEquals(UPDATED, Files.readString(AtomicConfigFiles.backupPath(path)));
+        Assertions.assertEquals(0, countTempFiles());
+    }
+
+    @Test
+    void failurePartwayThroughWriteKeepsOriginal() throws IOException
+    {
+        Path path = dir.resolve("mod.json");
+        writeString(path, ORIGINAL);
+
+        byte[] content = UPDATED.getBytes(StandardCharsets.UTF_8);
+        Assertions.assertThrows(
+                IOException.class, () -> AtomicConfigFiles.writeWithBackup(path, out -> {
+                    out.write(content, 0, content.length / 2);
+                    throw new IOException("Simulated crash");
+                })
+        );
+
+        Assertions.assertEquals(ORIGINAL, Files.readString(path));
+        Assertions.assertEquals(ORIGINAL, Files.readString(AtomicConfigFiles.backupPath(path)));
+        Assertions.assertEquals(0, countTempFiles());
+    }
+
+    @Test
+    void errorPartwayThroughWriteKeepsOriginal() throws IOException
+    {
+        Path path = dir.resolve("mod.json");
+        writeString(path, ORIGINAL);
+
+        Assertions.assertThrows(
+                OutOfMemoryError.class, () -> AtomicConfigFiles.write(path, out -> {
+                    out.write('{');
+                    throw new OutOfMemoryError("Simulated OOM");
+                })
+        );
+
+        Assertions.assertEquals(ORIGINAL, Files.readString(path));
+        Assertions.assertEquals(0, countTempFiles());
+    }
+
+    @Test
+    void storageFallsBackToBackupWhenConfigIsCorrupted() throws IOException
+    {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("backup.json");
+        writeString(path, UPDATED);
+        // What a crash in the middle of a non-atomic write would leave behind
+        Files.writeString(path, UPDATED.substring(0, UPDATED.length() / 2));
+
+        CyanLibOptionsStorage options = new CyanLibOptionsStorage("backup", new BackupTestingCyanLibConfigImpl());
+
+        Assertions.assertEquals(false, options.getOptionValue("enabled"));
+        Assertions.assertEquals(25, options.getOptionValue("distance"));
+    }
+
+    @Test
+    void storageUsesDefaultsWhenConfigIsEmpty() throws IOException
+    {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("empty.json");
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "");
+        Files.deleteIfExists(AtomicConfigFiles.backupPath(path));
+
+        CyanLibOptionsStorage options = new CyanLibOptionsStorage("empty", new BackupTestingCyanLibConfigImpl());
+
+        Assertions.assertEquals(
+                List.of("enabled", "distance"),
+                options.getOptionsNames()
+        );
+    }
+}
@@ -0,0 +1,19 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import fr.aeldit.cyanlib.lib.utils.RULES;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@SuppressWarnings("unused")
+public class BackupTestingCyanLibConfigImpl implements ICyanLibConfig
+{
+    public static final BooleanOption ENABLED = new BooleanOption("enabled", false);
+    public static final IntegerOption DISTANCE = new IntegerOption("distance", 10, RULES.POSITIVE_VALUE);
+
+    @Override
+    public Map<String, String> getDefaultTranslations()
+    {
+        return new HashMap<>(0);
+    }
+}
@@ -0,0 +1,19 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import fr.aeldit.cyanlib.lib.utils.RULES;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@SuppressWarnings("unused")
+public class ConcurrentTestingCyanLibConfigImpl implements ICyanLibConfig
+{
+    public static final BooleanOption FLAG = new BooleanOption("flag", false);
+    public static final IntegerOption LEVEL = new IntegerOption("level", 0, RULES.RANGE, 0, 1000);
+
+    @Override
+    public Map<String, String> getDefaultTranslations()
+    {
+        return new HashMap<>(0);
+    }
+}
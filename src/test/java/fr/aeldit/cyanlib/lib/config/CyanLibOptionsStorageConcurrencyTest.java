@@ -0,0 +1,255 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import net.fabricmc.loader.api.FabricLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class CyanLibOptionsStorageConcurrencyTest
+{
+    private static final int WRITERS = 4;
+    private static final int READERS = 8;
+    private static final int WRITES_PER_WRITER = 5_000;
+
+    private final CyanLibOptionsStorage options = new CyanLibOptionsStorage(
+            "concurrent", new ConcurrentTestingCyanLibConfigImpl()
+    );
+
+    @Test
+    void snapshotIsImmutable()
+    {
+        OptionsSnapshot snapshot = options.getSnapshot();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> snapshot.asMap().put("level", 3));
+    }
+
+    @Test
+    void snapshotIsNotAffectedByLaterWrites()
+    {
+        options.resetOptions();
+        OptionsSnapshot before = options.getSnapshot();
+
+        Assertions.assertTrue(options.setOption("level", 42, false));
+        Assertions.assertEquals(0, before.getValue("level"));
+        Assertions.assertEquals(42, options.getSnapshot().getValue("level"));
+        Assertions.assertEquals(List.of("flag", "level"), options.getSnapshot().getOptionsNames());
+    }
+
+    @Test
+    void directModificationsArePublished()
+    {
+        options.resetOptions();
+        List<OptionsChangeListener.Event> events = new ArrayList<>();
+        OptionsChangeListener listener = events::add;
+        options.addListener(listener);
+
+        // Like the config screen, which modifies the options without going through the storage
+        options.getIntegerOption("level").setInt(7);
+        options.removeListener(listener);
+
+        Assertions.assertEquals(7, options.getSnapshot().getValue("level"));
+        Assertions.assertEquals(7, options.getOptionValue("level"));
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(List.of("level"), events.get(0).changedOptions());
+    }
+
+    @Test
+    void resetSendsASingleBatchedEvent()
+    {
+        options.setOption("flag", true, false);
+        options.setOption("level", 5, false);
+
+        List<OptionsChangeListener.Event> events = new ArrayList<>();
+        OptionsChangeListener listener = events::add;
+        options.addListener(listener);
+        options.resetOptions();
+        options.resetOptions();
+        options.removeListener(listener);
+
+        Assertions.assertEquals(1, events.size());
+        Assertions.assertEquals(List.of("flag", "level"), events.get(0).changedOptions());
+        Assertions.assertEquals(5, events.get(0).previous().getValue("level"));
+        Assertions.assertEquals(0, events.get(0).current().getValue("level"));
+    }
+
+    @Test
+    void optionListenersOnlyFireOnChanges()
+    {
+        options.resetOptions();
+
+        List<Integer> newValues = new ArrayList<>();
+        IOption.ChangeListener<Integer> listener = (option, oldValue, newValue) -> newValues.add(newValue);
+        ConcurrentTestingCyanLibConfigImpl.LEVEL.addListener(listener);
+        options.setOption("level", 12, false);
+        options.setOption("level", 12, false);
+        options.setOption("level", 5000, false);
+        ConcurrentTestingCyanLibConfigImpl.LEVEL.removeListener(listener);
+        options.setOption("level", 0, false);
+
+        Assertions.assertEquals(List.of(12), newValues);
+    }
+
+    @Test
+    void asyncWritesAreMerged() throws Exception
+    {
+        CompletableFuture<Void> first = options.writeConfigAsync();
+        Assertions.assertTrue(options.setOption("level", 7, true));
+        CompletableFuture<Void> second = options.writeConfigAsync();
+
+        Assertions.assertSame(first, second);
+        second.get(1, TimeUnit.MINUTES);
+        Assertions.assertTrue(
+                Files.readString(FabricLoader.getInstance().getConfigDir().resolve("concurrent.json"))
+                     .contains("\"level\": 7")
+        );
+    }
+
+    @Test
+    void flushWritesImmediately()
+    {
+        CompletableFuture<Void> write = options.writeConfigAsync();
+        options.flush();
+        Assertions.assertTrue(write.isDone());
+    }
+
+    @Test
+    void flushWaitsForTheWriteInProgress() throws Exception
+    {
+        CountDownLatch publishing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Keeps the storage locked while a snapshot is published, so that the writer thread is blocked in the middle
+        // of its write
+        OptionsChangeListener listener = event -> {
+            if (Thread.currentThread().getName().equals("blocking setter"))
+            {
+                publishing.countDown();
+                try
+                {
+                    release.await();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        options.addListener(listener);
+
+        try
+        {
+            int level = (Integer) options.getOptionValue("level");
+            new Thread(() -> options.setOption("level", level + 1, false), "blocking setter").start();
+            Assertions.assertTrue(publishing.await(1, TimeUnit.MINUTES));
+
+            CompletableFuture<Void> write = options.writeConfigAsync();
+            Assertions.assertTrue(waitUntilBlocked("CyanLib config writer"));
+
+            CompletableFuture<Void> flush = CompletableFuture.runAsync(options::flush);
+            Thread.sleep(100);
+            Assertions.assertFalse(flush.isDone());
+
+            release.countDown();
+            flush.get(1, TimeUnit.MINUTES);
+            Assertions.assertTrue(write.isDone());
+        }
+        finally
+        {
+            release.countDown();
+            options.removeListener(listener);
+        }
+    }
+
+    private static boolean waitUntilBlocked(String threadName) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (System.nanoTime() < deadline)
+        {
+            for (Thread thread : Thread.getAllStackTraces().keySet())
+            {
+                if (thread.getName().equals(threadName) && thread.getState() == Thread.State.BLOCKED)
+                {
+                    return true;
+                }
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    @Test
+    void concurrentReadsAndWrites() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>(WRITERS);
+        List<Future<?>> readers = new ArrayList<>(READERS);
+
+        for (int i = 0; i < WRITERS; i++)
+        {
+            int writer = i;
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < WRITES_PER_WRITER; j++)
+                {
+                    if (j % 1000 == 999)
+                    {
+                        options.resetOptions();
+                    }
+                    else
+                    {
+                        Assertions.assertTrue(options.setOption("level", (writer * j) % 1001, false));
+                        Assertions.assertTrue(options.setOption("flag", j % 2 == 0, false));
+                    }
+                }
+                return null;
+            }));
+        }
+
+        for (int i = 0; i < READERS; i++)
+        {
+            readers.add(executor.submit(() -> {
+                start.await();
+                while (writing.get())
+                {
+                    OptionsSnapshot snapshot = options.getSnapshot();
+                    Assertions.assertEquals(2, snapshot.asMap().size());
+
+                    Object level = snapshot.getValue("level");
+                    Assertions.assertTrue(level instanceof Integer, "level is " + level);
+                    Assertions.assertTrue((Integer) level >= 0 && (Integer) level <= 1000, "level is " + level);
+                    Assertions.assertTrue(snapshot.getValue("flag") instanceof Boolean);
+                    Assertions.assertTrue(options.getOptionValue("level") instanceof Integer);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try
+        {
+            for (Future<?> writer : writers)
+            {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+        }
+        finally
+        {
+            writing.set(false);
+        }
+        for (Future<?> reader : readers)
+        {
+            reader.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Once every writer is done, the last published snapshot must match the options
+        OptionsSnapshot snapshot = options.getSnapshot();
+        Assertions.assertEquals(ConcurrentTestingCyanLibConfigImpl.LEVEL.getValue(), snapshot.getValue("level"));
+        Assertions.assertEquals(ConcurrentTestingCyanLibConfigImpl.FLAG.getValue(), snapshot.getValue("flag"));
+    }
+}
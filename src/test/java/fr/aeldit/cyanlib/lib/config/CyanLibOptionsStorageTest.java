@@ -1,9 +1,14 @@
 package fr.aeldit.cyanlib.lib.config;
 
 import fr.aeldit.cyanlib.lib.utils.RULES;
+import net.fabricmc.loader.api.FabricLoader;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -253,6 +258,61 @@ class CyanLibOptionsStorageTest
         }
     }
 
+    @Test
+    void readConfigIgnoresMalformedValues() throws IOException
+    {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("malformed.json");
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "{\"enabled\": \"yes\", \"distance\": 1.5, \"unknown\": [1, 2]}");
+        Object enabled = BackupTestingCyanLibConfigImpl.ENABLED.getValue();
+        Object distance = BackupTestingCyanLibConfigImpl.DISTANCE.getValue();
+
+        CyanLibOptionsStorage options = new CyanLibOptionsStorage("malformed", new BackupTestingCyanLibConfigImpl());
+
+        Assertions.assertEquals(enabled, options.getOptionValue("enabled"));
+        Assertions.assertEquals(distance, options.getOptionValue("distance"));
+        // The file is rewritten with the valid values
+        Assertions.assertFalse(Files.readString(path).contains("unknown"));
+    }
+
+    @Test
+    void reloadConfigReturnsChangedOptions() throws IOException
+    {
+        CyanLibOptionsStorage options = new CyanLibOptionsStorage("reload", new BackupTestingCyanLibConfigImpl());
+        boolean enabled = BackupTestingCyanLibConfigImpl.ENABLED.getBoolean();
+        int distance = BackupTestingCyanLibConfigImpl.DISTANCE.getInt();
+
+        Path path = FabricLoader.getInstance().getConfigDir().resolve("reload.json");
+        Files.writeString(path, "{\"enabled\": %s, \"distance\": %d}".formatted(!enabled, distance));
+
+        Assertions.assertEquals(List.of("enabled"), options.reloadConfig());
+        Assertions.assertEquals(!enabled, options.getOptionValue("enabled"));
+        Assertions.assertEquals(List.of(), options.reloadConfig());
+
+        // A file being written by an editor doesn't modify the options, nor notify their listeners
+        List<Boolean> newValues = new ArrayList<>();
+        IOption.ChangeListener<Boolean> listener = (option, oldValue, newValue) -> newValues.add(newValue);
+        BackupTestingCyanLibConfigImpl.ENABLED.addListener(listener);
+        Files.writeString(path, "{\"enabled\": %s, \"distance\": ".formatted(enabled));
+        Assertions.assertEquals(List.of(), options.reloadConfig());
+        BackupTestingCyanLibConfigImpl.ENABLED.removeListener(listener);
+        Assertions.assertEquals(!enabled, options.getOptionValue("enabled"));
+        Assertions.assertEquals(List.of(), newValues);
+    }
+
+    @Test
+    void reloadConfigIgnoresOurOwnWrites()
+    {
+        CyanLibOptionsStorage options = new CyanLibOptionsStorage("ownWrite", new BackupTestingCyanLibConfigImpl());
+        boolean enabled = BackupTestingCyanLibConfigImpl.ENABLED.getBoolean();
+        options.writeConfig();
+
+        // Modified after the write, which the watcher sees afterward
+        Assertions.assertTrue(options.setOption("enabled", !enabled, false));
+        Assertions.assertEquals(List.of(), options.reloadConfig());
+        Assertions.assertEquals(!enabled, options.getOptionValue("enabled"));
+    }
+
     @Test
     void optionExistsTrue()
     {
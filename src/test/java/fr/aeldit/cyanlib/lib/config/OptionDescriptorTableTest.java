@@ -0,0 +1,55 @@
+package fr.aeldit.cyanlib.lib.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+class OptionDescriptorTableTest
+{
+    private static class PrivateCyanLibConfigImpl implements ICyanLibConfig
+    {
+        public static final BooleanOption HIDDEN = new BooleanOption("hidden", true);
+
+        @Override
+        public Map<String, String> getDefaultTranslations()
+        {
+            return Map.of();
+        }
+    }
+
+    @Test
+    void registryIsGenerated()
+    {
+        Assertions.assertNotNull(OptionDescriptorTable.findRegistry(GetTestingCyanLibConfigImpl.class));
+    }
+
+    @Test
+    void registryMatchesReflection()
+    {
+        ICyanLibOptionRegistry registry = OptionDescriptorTable.findRegistry(GetTestingCyanLibConfigImpl.class);
+        Assertions.assertNotNull(registry);
+
+        Assertions.assertEquals(
+                OptionDescriptorTable.scan(GetTestingCyanLibConfigImpl.class).getDescriptors(),
+                OptionDescriptorTable.fromRegistry(registry).getDescriptors()
+        );
+    }
+
+    @Test
+    void noRegistryForOtherClasses()
+    {
+        Assertions.assertNull(OptionDescriptorTable.findRegistry(OptionDescriptorTableTest.class));
+    }
+
+    @Test
+    void privateClassesUseReflection()
+    {
+        Assertions.assertNull(OptionDescriptorTable.findRegistry(PrivateCyanLibConfigImpl.class));
+        Assertions.assertEquals(
+                List.of(PrivateCyanLibConfigImpl.HIDDEN),
+                OptionDescriptorTable.of(new PrivateCyanLibConfigImpl()).getOptions()
+        );
+    }
+}
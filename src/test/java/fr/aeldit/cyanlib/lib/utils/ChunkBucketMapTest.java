@@ -0,0 +1,60 @@
+package fr.aeldit.cyanlib.lib.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+class ChunkBucketMapTest
+{
+    @Test
+    void getOrCreateReturnsTheSameBucket()
+    {
+        ChunkBucketMap<String> map = new ChunkBucketMap<>();
+
+        Assertions.assertNull(map.get(0));
+        map.getOrCreate(0).add("a");
+        map.getOrCreate(0).add("b");
+        Assertions.assertEquals(2, map.get(0).size());
+        Assertions.assertEquals(1, map.size());
+
+        Assertions.assertTrue(map.remove(0));
+        Assertions.assertFalse(map.remove(0));
+        Assertions.assertNull(map.get(0));
+        Assertions.assertEquals(0, map.size());
+    }
+
+    @Test
+    void matchesAHashMap()
+    {
+        ChunkBucketMap<Long> map = new ChunkBucketMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 20_000; i++)
+        {
+            // Few distinct keys, so that removals often happen in the middle of probe sequences
+            long key = random.nextInt(512) - 256L << 32 | random.nextInt(8);
+            if (random.nextInt(3) == 0)
+            {
+                Assertions.assertEquals(expected.remove(key) != null, map.remove(key));
+            }
+            else if (!expected.containsKey(key))
+            {
+                expected.put(key, key);
+                map.getOrCreate(key).add(key);
+            }
+        }
+
+        Assertions.assertEquals(expected.size(), map.size());
+        for (long key : expected.keySet())
+        {
+            Assertions.assertEquals(key, (long) map.get(key).get(0));
+        }
+        Map<Long, Long> iterated = new HashMap<>();
+        map.forEach((key, bucket) -> iterated.put(key, bucket.get(0)));
+        Assertions.assertEquals(expected, iterated);
+    }
+}
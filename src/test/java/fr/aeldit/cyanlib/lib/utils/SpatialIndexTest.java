@@ -0,0 +1,159 @@
+package fr.aeldit.cyanlib.lib.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+class SpatialIndexTest
+{
+    private static final class Player
+    {
+        private final UUID uuid = UUID.randomUUID();
+        private double x;
+        private double y;
+        private double z;
+
+        private Player(double x, double y, double z)
+        {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+    }
+
+    private static SpatialIndex<String, Player> newIndex()
+    {
+        return new SpatialIndex<>(new SpatialIndex.Position<>()
+        {
+            @Override
+            public double getX(Player player)
+            {
+                return player.x;
+            }
+
+            @Override
+            public double getY(Player player)
+            {
+                return player.y;
+            }
+
+            @Override
+            public double getZ(Player player)
+            {
+                return player.z;
+            }
+        });
+    }
+
+    @Test
+    void radiusQueryUsesTheDistanceInThreeDimensions()
+    {
+        SpatialIndex<String, Player> index = newIndex();
+        Player near = new Player(3, 64, 4);
+        Player above = new Player(0, 80, 0);
+        Player otherChunk = new Player(-4, 64, -3);
+        Player far = new Player(100, 64, 100);
+        for (Player player : List.of(near, above, otherChunk, far))
+        {
+            index.update(player.uuid, player, "overworld");
+        }
+
+        Assertions.assertEquals(
+                Set.of(near, otherChunk), Set.copyOf(index.getInRadius("overworld", 0, 64, 0, 5))
+        );
+        Assertions.assertEquals(
+                Set.of(near, above, otherChunk), Set.copyOf(index.getInRadius("overworld", 0, 64, 0, 16))
+        );
+        // Large enough to go through the occupied chunks instead of the chunks of the area
+        Assertions.assertEquals(4, index.getInRadius("overworld", 0, 64, 0, 1000).size());
+        Assertions.assertTrue(index.getInRadius("the_nether", 0, 64, 0, 1000).isEmpty());
+    }
+
+    @Test
+    void boxQueryExcludesTheMaximumCoordinates()
+    {
+        SpatialIndex<String, Player> index = newIndex();
+        Player inside = new Player(16, 64, 16);
+        Player onMaxEdge = new Player(32, 64, 20);
+        for (Player player : List.of(inside, onMaxEdge))
+        {
+            index.update(player.uuid, player, "overworld");
+        }
+
+        Assertions.assertEquals(List.of(inside), index.getInBox("overworld", 16, 0, 16, 32, 128, 32));
+        Assertions.assertEquals(2, index.getInBox("overworld", 16, 0, 16, 33, 128, 32).size());
+    }
+
+    @Test
+    void movesUpdateTheChunks()
+    {
+        SpatialIndex<String, Player> index = newIndex();
+        Player player = new Player(8, 64, 8);
+        index.update(player.uuid, player, "overworld");
+
+        // Moving inside the same chunk keeps the player in its bucket
+        player.x = 15.5;
+        index.update(player.uuid, player, "overworld");
+        Assertions.assertEquals(1, index.getOccupiedChunks("overworld"));
+        Assertions.assertEquals(List.of(player), index.getInBox("overworld", 15, 0, 0, 16, 128, 16));
+
+        player.x = 40;
+        player.z = -20;
+        index.update(player.uuid, player, "overworld");
+        Assertions.assertEquals(1, index.getOccupiedChunks("overworld"));
+        Assertions.assertTrue(index.getInRadius("overworld", 8, 64, 8, 8).isEmpty());
+        Assertions.assertEquals(List.of(player), index.getInRadius("overworld", 40, 64, -20, 1));
+    }
+
+    @Test
+    void worldChangesMoveThePlayer()
+    {
+        SpatialIndex<String, Player> index = newIndex();
+        Player player = new Player(0, 64, 0);
+        index.update(player.uuid, player, "overworld");
+        index.update(player.uuid, player, "the_nether");
+
+        Assertions.assertEquals(0, index.getOccupiedChunks("overworld"));
+        Assertions.assertTrue(index.getInRadius("overworld", 0, 64, 0, 10).isEmpty());
+        Assertions.assertEquals(List.of(player), index.getInRadius("the_nether", 0, 64, 0, 10));
+    }
+
+    @Test
+    void replacedEntitiesAreNotKept()
+    {
+        SpatialIndex<String, Player> index = newIndex();
+        Player player = new Player(0, 64, 0);
+        index.update(player.uuid, player, "overworld");
+
+        // Same UUID and chunk, but a new entity (like after a respawn)
+        Player respawned = new Player(1, 64, 1);
+        index.update(player.uuid, respawned, "overworld");
+
+        Assertions.assertEquals(List.of(respawned), index.getInRadius("overworld", 0, 64, 0, 10));
+    }
+
+    @Test
+    void removedPlayersAreNotFound()
+    {
+        SpatialIndex<String, Player> index = newIndex();
+        Player first = new Player(0, 64, 0);
+        Player second = new Player(1, 64, 1);
+        index.update(first.uuid, first, "overworld");
+        index.update(second.uuid, second, "overworld");
+
+        index.remove(first.uuid);
+        index.remove(first.uuid);
+        Assertions.assertEquals(List.of(second), index.getInRadius("overworld", 0, 64, 0, 10));
+        Assertions.assertEquals(1, index.getOccupiedChunks("overworld"));
+
+        index.remove(second.uuid);
+        Assertions.assertEquals(0, index.getOccupiedChunks("overworld"));
+
+        index.update(first.uuid, first, "overworld");
+        index.clear();
+        Assertions.assertTrue(index.getInRadius("overworld", 0, 64, 0, 10).isEmpty());
+    }
+}